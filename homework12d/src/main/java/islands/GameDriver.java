@@ -5,6 +5,10 @@ import islands.model.SimulatedPlayer;
 import islands.model.student.AlphaBetaPlayer;
 import islands.model.student.CachingMinimaxPlayer;
 import islands.model.student.MinimaxPlayer;
+import islands.model.student.MonteCarloPlayer;
+import islands.model.student.PersistentCachingMinimaxPlayer;
+import islands.model.student.PrincipalVariationPlayer;
+import islands.model.student.TimedMonteCarloPlayer;
 import islands.view.Game;
 
 import java.awt.Dimension;
@@ -21,7 +25,11 @@ public class GameDriver {
             MinimaxPlayer.class,
             islands.model.student.RandomMaxPlayer.class,
             CachingMinimaxPlayer.class,
-            AlphaBetaPlayer.class
+            PersistentCachingMinimaxPlayer.class,
+            AlphaBetaPlayer.class,
+            PrincipalVariationPlayer.class,
+            MonteCarloPlayer.class,
+            TimedMonteCarloPlayer.class
     );
 
     public static void main(String[] args) {
@@ -123,12 +123,22 @@ public class GameController implements MouseListener {
 
     private void runSimulatedPlayers() {
         if (turn == TileColor.WHITE && whiteSimulatedPlayer != null) {
-            tryRowColFromPoint(whiteSimulatedPlayer.timeAndChooseNextMove(model, turn));
+            runSimulatedPlayer(whiteSimulatedPlayer);
         } else if (turn == TileColor.BLACK && blackSimulatedPlayer != null) {
-            tryRowColFromPoint(blackSimulatedPlayer.timeAndChooseNextMove(model, turn));
+            runSimulatedPlayer(blackSimulatedPlayer);
         }
     }
 
+    private void runSimulatedPlayer(SimulatedPlayer player) {
+        TileColor color = turn;
+        RowColPair move = player.timeAndChooseNextMove(model, color);
+        if (player instanceof SimulatedGameTreePlayer treePlayer) {
+            System.out.printf("Search by %s (%s): %s%n",
+                    player.getName(), color.getName(), treePlayer.getLastMoveStatistics());
+        }
+        tryRowColFromPoint(move);
+    }
+
     /**
      * Set the view delegate where output is sent
      *
@@ -179,9 +189,11 @@ public class GameController implements MouseListener {
                 viewDelegate.setWinner(getWinner());
                 if (whiteSimulatedPlayer != null) {
                     System.out.printf(whiteSimulatedPlayer.getTimeSummary(TileColor.WHITE));
+                    whiteSimulatedPlayer.endGame(model);
                 }
                 if (blackSimulatedPlayer != null) {
                     System.out.printf(blackSimulatedPlayer.getTimeSummary(TileColor.BLACK));
+                    blackSimulatedPlayer.endGame(model);
                 }
             } else {
                 toggleTurn();
@@ -0,0 +1,318 @@
+package islands.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A representation of the state of a game of Islands of Hex that keeps the
+ * tiles of each color in packed bitsets, one bit per cell in row-major order.
+ * Islands are found by repeatedly growing a set of cells into its neighbors,
+ * a whole word of cells at a time, so no per-cell objects are needed and
+ * {@link #deepCopy()} only has to copy two small arrays.
+ */
+public class BitboardGameModel implements GameModel {
+    private static final int BITS_PER_WORD = Long.SIZE;
+    private static final int LOG_BITS_PER_WORD = 6;
+
+    private final Masks masks;
+    private final ZobristKeys zobristKeys;
+    private long[] white;
+    private long[] black;
+    private EmptyCellSet emptyCells;
+    // The hash keys under each symmetry, indexed by ordinal.
+    private final long[] hashKeys;
+    // The number of plays that can be undone. The cells played are the
+    // ones most recently removed from emptyCells.
+    private int numPlays;
+
+    // Scratch space for flood fills, so they don't allocate.
+    private long[] island;
+    private long[] grown;
+
+    /**
+     * Constructs a model with an empty game board with the specified
+     * number of rows and columns.
+     *
+     * @param size the number of rows (and the number of columns) on the board
+     */
+    public BitboardGameModel(int size) {
+        masks = Masks.forSize(size);
+        zobristKeys = ZobristKeys.forSize(size);
+        hashKeys = zobristKeys.newHashKeys();
+        white = new long[masks.words];
+        black = new long[masks.words];
+        island = new long[masks.words];
+        grown = new long[masks.words];
+        emptyCells = new EmptyCellSet(size * size);
+    }
+
+    // needed for deepCopy()
+    private BitboardGameModel(BitboardGameModel other) {
+        masks = other.masks;
+        zobristKeys = other.zobristKeys;
+        hashKeys = other.hashKeys.clone();
+        white = other.white.clone();
+        black = other.black.clone();
+        island = new long[masks.words];
+        grown = new long[masks.words];
+        emptyCells = other.emptyCells.deepCopy();
+    }
+
+    @Override
+    public String toString() {
+        return getBoardString();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof GameModel otherModel) {
+            // Comparing hash keys rejects almost all unequal models quickly.
+            return getSize() == otherModel.getSize()
+                    && getHashKey() == otherModel.getHashKey()
+                    && getBoardString().equals(otherModel.getBoardString());
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getHashKey());
+    }
+
+    @Override
+    public long getHashKey() {
+        return hashKeys[Symmetry.IDENTITY.ordinal()];
+    }
+
+    @Override
+    public long getHashKey(Symmetry symmetry) {
+        return hashKeys[symmetry.ordinal()];
+    }
+
+    @Override
+    public String getBoardString() {
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < masks.size; row++) {
+            for (int col = 0; col < masks.size; col++) {
+                sb.append(getColor(row * masks.size + col).getName().charAt(0));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public BitboardGameModel deepCopy() {
+        return new BitboardGameModel(this);
+    }
+
+    @Override
+    public int getSize() {
+        return masks.size;
+    }
+
+    private boolean isInBounds(int row, int col) {
+        return row >= 0 && row < masks.size && col >= 0 && col < masks.size;
+    }
+
+    private static boolean isSet(long[] bits, int cell) {
+        return (bits[cell >>> LOG_BITS_PER_WORD] & (1L << cell)) != 0;
+    }
+
+    private TileColor getColor(int cell) {
+        if (isSet(white, cell)) {
+            return TileColor.WHITE;
+        }
+        if (isSet(black, cell)) {
+            return TileColor.BLACK;
+        }
+        return TileColor.NONE;
+    }
+
+    private long[] getStones(TileColor tileColor) {
+        return switch (tileColor) {
+            case WHITE -> white;
+            case BLACK -> black;
+            case NONE -> throw new IllegalArgumentException("Color cannot be EMPTY");
+        };
+    }
+
+    @Override
+    public int getEmptyCellCount() {
+        return emptyCells.size();
+    }
+
+    @Override
+    public int getEmptyCell(int index) {
+        return emptyCells.get(index);
+    }
+
+    @Override
+    public boolean canPlay(int row, int col) {
+        if (!isInBounds(row, col)) {
+            throw new IllegalArgumentException("Position is out of bounds.");
+        }
+        return getColor(row * masks.size + col) == TileColor.NONE;
+    }
+
+    @Override
+    public void makePlay(int row, int col, TileColor tileColor) {
+        // The call with throw IllegalArgumentException if the position is out
+        // of bounds.
+        if (!canPlay(row, col)) {
+            throw new IllegalArgumentException("The position is already occupied");
+        }
+        if (tileColor == TileColor.NONE) {
+            throw new IllegalArgumentException("Color cannot be EMPTY");
+        }
+        int cell = row * masks.size + col;
+        getStones(tileColor)[cell >>> LOG_BITS_PER_WORD] |= 1L << cell;
+        zobristKeys.toggle(hashKeys, tileColor, cell);
+        emptyCells.remove(cell);
+        numPlays++;
+    }
+
+    @Override
+    public void undoPlay() {
+        if (numPlays == 0) {
+            throw new IllegalStateException("There is no play to undo");
+        }
+        numPlays--;
+        int cell = emptyCells.undoRemove();
+        TileColor tileColor = getColor(cell);
+        getStones(tileColor)[cell >>> LOG_BITS_PER_WORD] &= ~(1L << cell);
+        zobristKeys.toggle(hashKeys, tileColor, cell);
+    }
+
+    @Override
+    public boolean isGameOver() {
+        return emptyCells.size() == 0
+                || connects(white, masks.topRow, masks.bottomRow)
+                || connects(black, masks.leftColumn, masks.rightColumn);
+    }
+
+    // Checks whether the stones touching one edge reach the other edge.
+    private boolean connects(long[] stones, long[] fromEdge, long[] toEdge) {
+        boolean any = false;
+        for (int w = 0; w < masks.words; w++) {
+            island[w] = stones[w] & fromEdge[w];
+            any |= island[w] != 0;
+        }
+        if (!any) {
+            return false;
+        }
+        fill(stones);
+        for (int w = 0; w < masks.words; w++) {
+            if ((island[w] & toEdge[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getScore(TileColor tileColor) {
+        long[] remaining = getStones(tileColor).clone();
+        int count = 0;
+        for (int w = 0; w < masks.words; w++) {
+            while (remaining[w] != 0) {
+                // Grow an island from the lowest remaining stone, then
+                // remove the whole island.
+                Arrays.fill(island, 0);
+                island[w] = Long.lowestOneBit(remaining[w]);
+                fill(remaining);
+                for (int i = w; i < masks.words; i++) {
+                    remaining[i] &= ~island[i];
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Grows island until it contains every stone connected to it.
+    private void fill(long[] stones) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int w = 0; w < masks.words; w++) {
+                grown[w] = grow(island, w) & stones[w];
+                changed |= grown[w] != island[w];
+            }
+            long[] temp = island;
+            island = grown;
+            grown = temp;
+        }
+    }
+
+    // Gets word w of the set containing the cells in bits and their
+    // neighbors. A cell (row, col) neighbors (row, col +/- 1),
+    // (row +/- 1, col), (row + 1, col + 1), and (row - 1, col - 1).
+    private long grow(long[] bits, int w) {
+        int size = masks.size;
+        long rightward = shiftUp(bits, w, 1) | shiftUp(bits, w, size + 1);
+        long leftward = shiftDown(bits, w, 1) | shiftDown(bits, w, size + 1);
+        return bits[w]
+                | shiftUp(bits, w, size)
+                | shiftDown(bits, w, size)
+                | (rightward & ~masks.leftColumn[w])
+                | (leftward & ~masks.rightColumn[w]);
+    }
+
+    // Gets word w of the bits moved to higher indices by the given distance.
+    private static long shiftUp(long[] bits, int w, int distance) {
+        int from = w - (distance >>> LOG_BITS_PER_WORD);
+        int offset = distance & (BITS_PER_WORD - 1);
+        long high = from >= 0 ? bits[from] << offset : 0;
+        long low = offset != 0 && from >= 1 ? bits[from - 1] >>> (BITS_PER_WORD - offset) : 0;
+        return high | low;
+    }
+
+    // Gets word w of the bits moved to lower indices by the given distance.
+    private static long shiftDown(long[] bits, int w, int distance) {
+        int from = w + (distance >>> LOG_BITS_PER_WORD);
+        int offset = distance & (BITS_PER_WORD - 1);
+        long low = from < bits.length ? bits[from] >>> offset : 0;
+        long high = offset != 0 && from + 1 < bits.length ? bits[from + 1] << (BITS_PER_WORD - offset) : 0;
+        return high | low;
+    }
+
+    /**
+     * Masks that depend only on the board size, shared by all models of
+     * that size.
+     */
+    private static class Masks {
+        private static final Map<Integer, Masks> CACHE = new ConcurrentHashMap<>();
+
+        private final int size;
+        private final int words;
+        private final long[] topRow;
+        private final long[] bottomRow;
+        private final long[] leftColumn;
+        private final long[] rightColumn;
+
+        private Masks(int size) {
+            this.size = size;
+            words = (size * size + BITS_PER_WORD - 1) >>> LOG_BITS_PER_WORD;
+            topRow = new long[words];
+            bottomRow = new long[words];
+            leftColumn = new long[words];
+            rightColumn = new long[words];
+            for (int i = 0; i < size; i++) {
+                set(topRow, i);
+                set(bottomRow, (size - 1) * size + i);
+                set(leftColumn, i * size);
+                set(rightColumn, i * size + size - 1);
+            }
+        }
+
+        private static Masks forSize(int size) {
+            return CACHE.computeIfAbsent(size, Masks::new);
+        }
+
+        private static void set(long[] bits, int cell) {
+            bits[cell >>> LOG_BITS_PER_WORD] |= 1L << cell;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package islands.model;
+
+import java.util.Arrays;
+
+/**
+ * A disjoint-set (union-find) structure over the elements 0 through n - 1,
+ * stored in primitive arrays. It uses union by rank and path halving, so
+ * chains stay short without recursion.
+ * <p>
+ * Each set can also carry marks, bit flags whose meaning is up to the
+ * caller. When two sets are merged, the merged set has the marks of both.
+ * <p>
+ * Once {@link #checkpoint()} has been called, every change is recorded, so
+ * that the structure can be rolled back to any earlier checkpoint.
+ */
+public class DisjointSets {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // The fields whose changes are recorded in the history.
+    private static final int PARENT = 0;
+    private static final int RANK = 1;
+    private static final int MARKS = 2;
+
+    private int count;
+    private int[] parent;
+    private byte[] rank; // at most log2(count), so it fits in a byte
+    private int[] marks; // only meaningful for representatives
+
+    // Pairs of (change, old value), where a change is 3 * element plus
+    // one of PARENT, RANK, or MARKS. Null until the first checkpoint.
+    private int[] history;
+    private int historySize;
+
+    /**
+     * Constructs an empty structure. Elements can be added with
+     * {@link #add()}.
+     */
+    public DisjointSets() {
+        parent = new int[DEFAULT_CAPACITY];
+        rank = new byte[DEFAULT_CAPACITY];
+        marks = new int[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Constructs a structure in which each of the specified number of
+     * elements is in a set by itself.
+     *
+     * @param count the number of elements
+     */
+    public DisjointSets(int count) {
+        this.count = count;
+        parent = new int[count];
+        rank = new byte[count];
+        marks = new int[count];
+        for (int i = 0; i < count; i++) {
+            parent[i] = i;
+        }
+    }
+
+    // needed for deepCopy()
+    private DisjointSets(DisjointSets other) {
+        count = other.count;
+        parent = other.parent.clone();
+        rank = other.rank.clone();
+        marks = other.marks.clone();
+    }
+
+    /**
+     * Makes a deep copy of this structure. The copy starts with no history,
+     * so it cannot be rolled back to checkpoints taken before the copy.
+     *
+     * @return the copy
+     */
+    public DisjointSets deepCopy() {
+        return new DisjointSets(this);
+    }
+
+    /**
+     * Gets the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Adds an element in a set by itself.
+     *
+     * @return the new element
+     */
+    public int add() {
+        if (count == parent.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, 2 * count);
+            parent = Arrays.copyOf(parent, capacity);
+            rank = Arrays.copyOf(rank, capacity);
+            marks = Arrays.copyOf(marks, capacity);
+        }
+        parent[count] = count;
+        return count++;
+    }
+
+    /**
+     * Finds the representative of the set to which an element belongs.
+     *
+     * @param element the element
+     * @return the representative
+     */
+    public int find(int element) {
+        while (parent[element] != element) {
+            // Path halving: point every other element at its grandparent.
+            setParent(element, parent[parent[element]]);
+            element = parent[element];
+        }
+        return element;
+    }
+
+    /**
+     * Merges the sets to which two elements belong.
+     *
+     * @param element1 the first element
+     * @param element2 the second element
+     * @return true if the elements were in different sets, false if they
+     *         were already in the same set
+     */
+    public boolean union(int element1, int element2) {
+        int rep1 = find(element1);
+        int rep2 = find(element2);
+
+        // If they're already in the same set, stop.
+        if (rep1 == rep2) {
+            return false;
+        }
+
+        // Choose the element with the larger rank as the parent of the other.
+        if (rank[rep1] < rank[rep2]) {
+            int temp = rep1;
+            rep1 = rep2;
+            rep2 = temp;
+        } else if (rank[rep1] == rank[rep2]) {
+            record(rep1, RANK, rank[rep1]);
+            rank[rep1]++;
+        }
+        setParent(rep2, rep1);
+        setMarks(rep1, marks[rep1] | marks[rep2]);
+        return true;
+    }
+
+    /**
+     * Adds marks to the set to which an element belongs.
+     *
+     * @param element the element
+     * @param bits    the marks to add
+     */
+    public void mark(int element, int bits) {
+        int rep = find(element);
+        setMarks(rep, marks[rep] | bits);
+    }
+
+    /**
+     * Gets the marks of the set to which an element belongs.
+     *
+     * @param element the element
+     * @return the marks
+     */
+    public int getMarks(int element) {
+        return marks[find(element)];
+    }
+
+    /**
+     * Starts recording changes, if this hasn't already been done, and
+     * returns a checkpoint that the structure can be rolled back to.
+     *
+     * @return the checkpoint
+     * @see #rollback(int)
+     */
+    public int checkpoint() {
+        if (history == null) {
+            history = new int[DEFAULT_CAPACITY];
+        }
+        return historySize;
+    }
+
+    /**
+     * Undoes every change made since the specified checkpoint. Checkpoints
+     * taken after it become invalid. Elements added since the checkpoint
+     * are kept, each in a set by itself.
+     *
+     * @param checkpoint a checkpoint returned by {@link #checkpoint()}
+     * @throws IllegalArgumentException if the checkpoint is invalid
+     */
+    public void rollback(int checkpoint) {
+        if (checkpoint < 0 || checkpoint > historySize) {
+            throw new IllegalArgumentException("Invalid checkpoint");
+        }
+        while (historySize > checkpoint) {
+            int oldValue = history[--historySize];
+            int change = history[--historySize];
+            int element = change / 3;
+            switch (change % 3) {
+                case PARENT -> parent[element] = oldValue;
+                case RANK -> rank[element] = (byte) oldValue;
+                default -> marks[element] = oldValue;
+            }
+        }
+    }
+
+    private void setParent(int element, int value) {
+        if (parent[element] != value) {
+            record(element, PARENT, parent[element]);
+            parent[element] = value;
+        }
+    }
+
+    private void setMarks(int element, int value) {
+        if (marks[element] != value) {
+            record(element, MARKS, marks[element]);
+            marks[element] = value;
+        }
+    }
+
+    private void record(int element, int field, int oldValue) {
+        if (history == null) {
+            return;
+        }
+        if (historySize + 2 > history.length) {
+            history = Arrays.copyOf(history, 2 * history.length);
+        }
+        history[historySize++] = 3 * element + field;
+        history[historySize++] = oldValue;
+    }
+}
@@ -0,0 +1,100 @@
+package islands.model;
+
+/**
+ * The empty cells of a board, as cell indices (row * size + column), in an
+ * array that can be read without allocation. Removing a cell swaps it with
+ * the last one, and removals can be undone in the reverse order, which
+ * restores the exact order of the array. This means a search can iterate
+ * over the cells while making and undoing plays at each of them.
+ */
+class EmptyCellSet {
+    private final int[] cells;
+    // The position of each empty cell in cells. For a removed cell, this is
+    // the position it was removed from.
+    private final int[] positions;
+    private int size;
+
+    /**
+     * Constructs a set of every cell on a board with the specified number
+     * of cells, in increasing order.
+     *
+     * @param count the number of cells
+     */
+    EmptyCellSet(int count) {
+        cells = new int[count];
+        positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            cells[i] = i;
+            positions[i] = i;
+        }
+        size = count;
+    }
+
+    // needed for deepCopy()
+    private EmptyCellSet(EmptyCellSet other) {
+        cells = other.cells.clone();
+        positions = other.positions.clone();
+        size = other.size;
+    }
+
+    /**
+     * Makes a deep copy of this set.
+     *
+     * @return the copy
+     */
+    EmptyCellSet deepCopy() {
+        return new EmptyCellSet(this);
+    }
+
+    /**
+     * Gets the number of empty cells.
+     *
+     * @return the number of empty cells
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the empty cell at the specified position.
+     *
+     * @param index the position, from 0 to {@link #size()} - 1
+     * @return the cell
+     */
+    int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return cells[index];
+    }
+
+    /**
+     * Removes a cell, which must be in this set.
+     *
+     * @param cell the cell
+     */
+    void remove(int cell) {
+        int position = positions[cell];
+        int last = cells[--size];
+        cells[position] = last;
+        positions[last] = position;
+        cells[size] = cell;
+    }
+
+    /**
+     * Adds back the most recently removed cell that has not already been
+     * added back, at the position it was removed from.
+     *
+     * @return the cell
+     */
+    int undoRemove() {
+        int cell = cells[size];
+        int position = positions[cell];
+        int moved = cells[position];
+        cells[position] = cell;
+        cells[size] = moved;
+        positions[moved] = size;
+        size++;
+        return cell;
+    }
+}
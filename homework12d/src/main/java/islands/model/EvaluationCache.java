@@ -0,0 +1,78 @@
+package islands.model;
+
+import java.util.Arrays;
+
+/**
+ * A small direct-mapped cache of the values of positions, for {@link
+ * SimulatedGameTreePlayer#getValue(GameModel, TileColor)}. Each position
+ * has one slot, chosen by its hash key, and a new value simply replaces
+ * the one there. Values are stored from White's point of view, since a
+ * position is worth exactly as much to White as it costs Black, so one
+ * entry serves both colors.
+ */
+class EvaluationCache {
+    private static final int LOG_CAPACITY = 14;
+    private static final int CAPACITY = 1 << LOG_CAPACITY;
+
+    private final long[] keys = new long[CAPACITY];
+    // NaN marks an empty slot.
+    private final double[] values = new double[CAPACITY];
+    private long hits;
+    private long misses;
+
+    EvaluationCache() {
+        Arrays.fill(values, Double.NaN);
+    }
+
+    // Spreads the bits of a key over the bits of the index.
+    private static int getIndex(long key) {
+        return (int) (key * 0x9E3779B97F4A7C15L >>> (Long.SIZE - LOG_CAPACITY));
+    }
+
+    /**
+     * Gets the cached value of a position to White, counting a hit or miss.
+     *
+     * @param key the hash key of the position
+     * @return the value, or NaN if it isn't cached
+     */
+    double get(long key) {
+        int index = getIndex(key);
+        if (keys[index] == key && !Double.isNaN(values[index])) {
+            hits++;
+            return values[index];
+        }
+        misses++;
+        return Double.NaN;
+    }
+
+    /**
+     * Caches the value of a position to White.
+     *
+     * @param key   the hash key of the position
+     * @param value the value
+     */
+    void put(long key, double value) {
+        int index = getIndex(key);
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    /**
+     * Adds the hits and misses of another cache, such as one used by a
+     * helper of a parallel search, to those of this cache.
+     *
+     * @param other the other cache
+     */
+    void addCounts(EvaluationCache other) {
+        hits += other.hits;
+        misses += other.misses;
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+}
@@ -22,6 +22,28 @@ public interface GameModel {
      */
     boolean canPlay(int row, int col);
 
+    /**
+     * Gets the number of empty cells, which is the number of legal plays
+     * unless the game is over.
+     *
+     * @return the number of empty cells
+     */
+    int getEmptyCellCount();
+
+    /**
+     * Gets one of the empty cells as a cell index, row * size + column.
+     * Indices 0 through {@link #getEmptyCellCount()} - 1 give each empty
+     * cell exactly once, in an unspecified order. The order only changes
+     * when plays are made or undone, and undoing a play restores the order
+     * from before it. A search can therefore loop over the empty cells of a
+     * model while making and undoing plays on it, without allocating.
+     *
+     * @param index the index, from 0 to {@link #getEmptyCellCount()} - 1
+     * @return the cell index of an empty cell
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    int getEmptyCell(int index);
+
     /**
      * Plays a piece at the specified row and column if that space is in
      * bounds and unoccupied and the specified color is either
@@ -36,6 +58,18 @@ public interface GameModel {
      */
     void makePlay(int row, int col, TileColor tileColor);
 
+    /**
+     * Undoes the most recent play made with
+     * {@link #makePlay(int, int, TileColor)} that has not already been
+     * undone, restoring the model to exactly the state it had before that
+     * play. This lets a search explore moves on a single model instead of
+     * on copies. Plays made before a model was created by
+     * {@link #deepCopy()} cannot be undone on the copy.
+     *
+     * @throws IllegalStateException if there is no play to undo
+     */
+    void undoPlay();
+
     /**
      * Returns the score for the specified color.
      *
@@ -64,6 +98,29 @@ public interface GameModel {
      */
     boolean isGameOver();
 
+    /**
+     * Gets a 64-bit hash of the board position, suitable as a key for
+     * caches. Models of the same size showing the same tiles have the same
+     * key, even if they are different implementations, and models showing
+     * different tiles almost always have different keys. The key is kept
+     * up to date as plays are made, so this is a constant-time operation.
+     *
+     * @return the hash of the board position
+     * @see ZobristKeys
+     */
+    long getHashKey();
+
+    /**
+     * Gets the hash key of the board position transformed by a symmetry,
+     * which is the key that {@link #getHashKey()} would return for the
+     * transformed position. Like that key, it is kept up to date as plays
+     * are made.
+     *
+     * @param symmetry the symmetry
+     * @return the hash of the transformed board position
+     */
+    long getHashKey(Symmetry symmetry);
+
     /**
      * Makes a fully independent "deep" copy of this model sharing none of its
      * data.
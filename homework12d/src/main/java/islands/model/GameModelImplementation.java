@@ -1,15 +1,51 @@
 package islands.model;
 
-import java.util.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A representation of the state of a game of Islands of Hex.
+ * <p>
+ * Everything that changes during a game is kept in a few flat arrays, so
+ * that {@link #deepCopy()} is a handful of array copies. The adjacency of
+ * cells never changes, so it is shared by all models of the same size.
  */
 public class GameModelImplementation implements GameModel {
-    private int size;
-    private int numEmptyCells;
-    private Graph<TileColor> graph;
-    private Graph.Node<TileColor>[][] board;
+    // Marks on an island that touches the first (top or left) or the last
+    // (bottom or right) edge that its color is trying to connect.
+    private static final int FIRST_EDGE = 1;
+    private static final int LAST_EDGE = 2;
+    private static final int BOTH_EDGES = FIRST_EDGE | LAST_EDGE;
+    private static final int PLAY_RECORD_LENGTH = 4;
+    private static final TileColor[] TILE_COLORS = TileColor.values();
+    private static final byte EMPTY = (byte) TileColor.NONE.ordinal();
+    // In the binary encoding, each cell takes 2 bits holding its TileColor
+    // ordinal, with the first cell in the low bits of the first byte.
+    private static final int BITS_PER_ENCODED_CELL = 2;
+    private static final int ENCODED_CELLS_PER_BYTE = Byte.SIZE / BITS_PER_ENCODED_CELL;
+    private static final int ENCODED_CELL_MASK = (1 << BITS_PER_ENCODED_CELL) - 1;
+
+    private final int size;
+    private final Topology topology;
+    private final ZobristKeys zobristKeys;
+    private EmptyCellSet emptyCells;
+    // The number of islands of each color, indexed by TileColor ordinal.
+    private int[] islandCounts;
+    private boolean hasPath;
+    // The hash keys under each symmetry, indexed by ordinal.
+    private final long[] hashKeys;
+    // The TileColor ordinal of each cell, in row-major order.
+    private byte[] colors;
+    // The islands, with one element per cell.
+    private DisjointSets islands;
+    // What undoPlay() needs to restore, PLAY_RECORD_LENGTH values per play:
+    // the cell, the checkpoint of the islands, the island count of the
+    // player before the play, and whether there was a path.
+    private int[] plays;
+    private int numPlays;
 
     /**
      * Constructs a model with an empty game board with the specified
@@ -19,16 +55,27 @@ public class GameModelImplementation implements GameModel {
      */
     public GameModelImplementation(int size) {
         this.size = size;
-        numEmptyCells = size * size;
-        graph = new Graph<>();
-
-        board = (Graph.Node<TileColor>[][]) new Graph.Node<?>[size][size];
-        addBoardNodes();
-        addBoardEdges();
+        topology = Topology.forSize(size);
+        zobristKeys = ZobristKeys.forSize(size);
+        hashKeys = zobristKeys.newHashKeys();
+        emptyCells = new EmptyCellSet(size * size);
+        islandCounts = new int[TILE_COLORS.length];
+        colors = new byte[size * size];
+        Arrays.fill(colors, EMPTY);
+        islands = new DisjointSets(size * size);
     }
 
     // needed for deepCopy()
-    private GameModelImplementation() {
+    private GameModelImplementation(GameModelImplementation other) {
+        size = other.size;
+        topology = other.topology;
+        zobristKeys = other.zobristKeys;
+        emptyCells = other.emptyCells.deepCopy();
+        islandCounts = other.islandCounts.clone();
+        hasPath = other.hasPath;
+        hashKeys = other.hashKeys.clone();
+        colors = other.colors.clone();
+        islands = other.islands.deepCopy();
     }
 
     @Override
@@ -39,14 +86,27 @@ public class GameModelImplementation implements GameModel {
     @Override
     public boolean equals(Object other) {
         if (other instanceof GameModel otherModel) {
-            return getBoardString().equals(otherModel.getBoardString());
+            // Comparing hash keys rejects almost all unequal models quickly.
+            return getSize() == otherModel.getSize()
+                    && getHashKey() == otherModel.getHashKey()
+                    && getBoardString().equals(otherModel.getBoardString());
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        return Long.hashCode(getHashKey());
+    }
+
+    @Override
+    public long getHashKey() {
+        return hashKeys[Symmetry.IDENTITY.ordinal()];
+    }
+
+    @Override
+    public long getHashKey(Symmetry symmetry) {
+        return hashKeys[symmetry.ordinal()];
     }
 
     @Override
@@ -54,60 +114,101 @@ public class GameModelImplementation implements GameModel {
         StringBuilder sb = new StringBuilder();
         for (int row = 0; row < size; row++) {
             for (int col = 0; col < size; col++) {
-                sb.append(board[row][col].getData().getName().charAt(0));
+                sb.append(TILE_COLORS[colors[row * size + col]].getName().charAt(0));
             }
             sb.append('\n');
         }
         return sb.toString();
     }
 
-    @Override
-    public GameModelImplementation deepCopy() {
-        GameModelImplementation copy = new GameModelImplementation();
-        copy.size = this.size;
-        copy.numEmptyCells = this.numEmptyCells;
-        copy.graph = graph.deepCopy();
-        copy.board = (Graph.Node<TileColor>[][]) new Graph.Node<?>[size][size];
-        // Add nodes to board in the order they were added to the graph.
-        Iterator<Graph.Node<TileColor>> iterator = copy.graph.getNodes().iterator();
-        for (int row = 0; row < size; row++) {
-            for (int col = 0; col < size; col++) {
-                copy.board[row][col] = iterator.next();
-            }
-        }
-        return copy;
+    /**
+     * Gets the number of bytes in the binary encoding of a board of the
+     * specified size, which takes 2 bits per cell. For example, a 25x25
+     * board takes 157 bytes.
+     *
+     * @param size the number of rows (and the number of columns) on the board
+     * @return the number of bytes
+     * @see #toBytes()
+     */
+    public static int getEncodedLength(int size) {
+        return (size * size + ENCODED_CELLS_PER_BYTE - 1) / ENCODED_CELLS_PER_BYTE;
     }
 
-    @Override
-    public int getSize() {
-        return board.length;
+    /**
+     * Encodes the board position of this model in
+     * {@link #getEncodedLength(int)} bytes, 2 bits per cell in row-major
+     * order. The board size is not included.
+     *
+     * @return the encoded position
+     * @see #fromBytes(int, byte[])
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[getEncodedLength(size)];
+        for (int cell = 0; cell < colors.length; cell++) {
+            bytes[cell / ENCODED_CELLS_PER_BYTE] |=
+                    colors[cell] << (BITS_PER_ENCODED_CELL * (cell % ENCODED_CELLS_PER_BYTE));
+        }
+        return bytes;
     }
 
-    private void addBoardNodes() {
-        for (int row = 0; row < size; row++) {
-            for (int col = 0; col < size; col++) {
-                Graph.Node<TileColor> node = graph.addNode(TileColor.NONE);
-                board[row][col] = node;
-            }
+    /**
+     * Constructs a model with the board position encoded by
+     * {@link #toBytes()}. The islands are derived from the tiles, and none
+     * of the tiles can be removed with {@link #undoPlay()}.
+     *
+     * @param size  the number of rows (and the number of columns) on the board
+     * @param bytes the encoded position
+     * @return the model
+     * @throws IllegalArgumentException if the number of bytes is wrong for
+     *                                  the size or the bytes are not a valid
+     *                                  encoding
+     */
+    public static GameModelImplementation fromBytes(int size, byte[] bytes) {
+        if (bytes.length != getEncodedLength(size)) {
+            throw new IllegalArgumentException("Wrong number of bytes for board size");
         }
+        return fromBytes(size, ByteBuffer.wrap(bytes));
     }
 
-    private void addBoardEdges() {
-        // Add edges between pairs of nodes.
-        for (int row = 0; row < this.size; row++) {
-            for (int col = 0; col < this.size; col++) {
-                Graph.Node<TileColor> node = board[row][col];
-                addEdgeIfInBounds(node, row, col + 1);
-                addEdgeIfInBounds(node, row + 1, col + 1);
-                addEdgeIfInBounds(node, row + 1, col);
+    /**
+     * Constructs a model with the board position encoded by
+     * {@link #toBytes()}, read from the current position of a buffer. The
+     * buffer's position is advanced past the encoded position. The islands
+     * are derived from the tiles, and none of the tiles can be removed with
+     * {@link #undoPlay()}.
+     *
+     * @param size   the number of rows (and the number of columns) on the board
+     * @param buffer the buffer holding the encoded position
+     * @return the model
+     * @throws BufferUnderflowException if there are not enough bytes remaining
+     * @throws IllegalArgumentException if the bytes are not a valid encoding
+     */
+    public static GameModelImplementation fromBytes(int size, ByteBuffer buffer) {
+        GameModelImplementation model = new GameModelImplementation(size);
+        int cell = 0;
+        for (int i = 0; i < getEncodedLength(size); i++) {
+            int b = buffer.get();
+            for (int j = 0; j < ENCODED_CELLS_PER_BYTE; j++, cell++) {
+                int ordinal = (b >>> (BITS_PER_ENCODED_CELL * j)) & ENCODED_CELL_MASK;
+                if (ordinal >= TILE_COLORS.length || ordinal != EMPTY && cell >= size * size) {
+                    throw new IllegalArgumentException("Invalid board encoding");
+                }
+                if (ordinal != EMPTY) {
+                    model.placeTile(cell, TILE_COLORS[ordinal]);
+                }
             }
         }
+        return model;
     }
 
-    private void addEdgeIfInBounds(Graph.Node<TileColor> node, int row, int col) {
-        if (isInBounds(row, col)) {
-            graph.addEdge(node, board[row][col]);
-        }
+    @Override
+    public GameModelImplementation deepCopy() {
+        return new GameModelImplementation(this);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
     }
 
     private boolean isOutOfBounds(int row, int col) {
@@ -115,15 +216,29 @@ public class GameModelImplementation implements GameModel {
     }
 
     private boolean isInBounds(int row, int col) {
+        return isInBounds(size, row, col);
+    }
+
+    private static boolean isInBounds(int size, int row, int col) {
         return row >= 0 && row < size && col >= 0 && col < size;
     }
 
+    @Override
+    public int getEmptyCellCount() {
+        return emptyCells.size();
+    }
+
+    @Override
+    public int getEmptyCell(int index) {
+        return emptyCells.get(index);
+    }
+
     @Override
     public boolean canPlay(int row, int col) {
         if (isOutOfBounds(row, col)) {
             throw new IllegalArgumentException("Position is out of bounds.");
         }
-        return board[row][col].getData() == TileColor.NONE;
+        return colors[row * size + col] == EMPTY;
     }
 
     @Override
@@ -136,65 +251,120 @@ public class GameModelImplementation implements GameModel {
         if (tileColor == TileColor.NONE) {
             throw new IllegalArgumentException("Color cannot be EMPTY");
         }
-        Graph.Node<TileColor> node = board[row][col];
-        node.setData(tileColor);
-        numEmptyCells--;
-        for (Graph.Node<TileColor> neighbor : node.getNeighbors()) {
-            if (neighbor.getData() == tileColor) {
-                node.union(neighbor);
+        int cell = row * size + col;
+        recordPlay(cell, tileColor);
+        placeTile(cell, tileColor);
+    }
+
+    // Places a tile without recording it for undoPlay().
+    private void placeTile(int cell, TileColor tileColor) {
+        byte color = (byte) tileColor.ordinal();
+        colors[cell] = color;
+        zobristKeys.toggle(hashKeys, tileColor, cell);
+        emptyCells.remove(cell);
+        // The new tile starts its own island, which absorbs every distinct
+        // island of the same color that it touches.
+        islandCounts[tileColor.ordinal()]++;
+        int[] neighbors = topology.neighbors;
+        for (int i = topology.neighborStart[cell]; i < topology.neighborStart[cell + 1]; i++) {
+            int neighbor = neighbors[i];
+            if (colors[neighbor] == color && islands.union(cell, neighbor)) {
+                islandCounts[tileColor.ordinal()]--;
             }
         }
+        // White connects the top and bottom rows, black the left and right
+        // columns.
+        islands.mark(cell, getEdges(tileColor == TileColor.WHITE ? cell / size : cell % size));
+        if (islands.getMarks(cell) == BOTH_EDGES) {
+            hasPath = true;
+        }
     }
 
-    @Override
-    public boolean isGameOver() {
-        return hasVerticalPath() || hasHorizontalPath() || numEmptyCells == 0;
+    private void recordPlay(int cell, TileColor tileColor) {
+        if (plays == null) {
+            plays = new int[PLAY_RECORD_LENGTH * size];
+        } else if (PLAY_RECORD_LENGTH * (numPlays + 1) > plays.length) {
+            plays = Arrays.copyOf(plays, 2 * plays.length);
+        }
+        int start = PLAY_RECORD_LENGTH * numPlays++;
+        plays[start] = cell;
+        plays[start + 1] = islands.checkpoint();
+        plays[start + 2] = islandCounts[tileColor.ordinal()];
+        plays[start + 3] = hasPath ? 1 : 0;
     }
 
-    private boolean hasHorizontalPath() {
-        Set<Graph.Node<TileColor>> islands = new HashSet<>();
-
-        // Build set of island in left column.
-        for (int row = 0; row < size; row++) {
-            Graph.Node<TileColor> node = board[row][0];
-            if (node.getData() == TileColor.BLACK) {
-                islands.add(node.find());
-            }
+    @Override
+    public void undoPlay() {
+        if (numPlays == 0) {
+            throw new IllegalStateException("There is no play to undo");
         }
+        int start = PLAY_RECORD_LENGTH * --numPlays;
+        int cell = plays[start];
+        islands.rollback(plays[start + 1]);
+        islandCounts[colors[cell]] = plays[start + 2];
+        hasPath = plays[start + 3] != 0;
+        zobristKeys.toggle(hashKeys, TILE_COLORS[colors[cell]], cell);
+        colors[cell] = EMPTY;
+        emptyCells.undoRemove();
+    }
 
-        // Check for matches in the right column.
-        for (int row = 0; row < size; row++) {
-            Graph.Node<TileColor> node = board[row][size - 1];
-            if (node.getData() == TileColor.BLACK && islands.contains(node.find())) {
-                return true;
-            }
+    private int getEdges(int index) {
+        int edges = 0;
+        if (index == 0) {
+            edges |= FIRST_EDGE;
         }
-        return false;
+        if (index == size - 1) {
+            edges |= LAST_EDGE;
+        }
+        return edges;
     }
 
-    private boolean hasVerticalPath() {
-        Set<Graph.Node<TileColor>> islands = new HashSet<>();
+    @Override
+    public boolean isGameOver() {
+        return hasPath || emptyCells.size() == 0;
+    }
 
-        // Build set of island in top row.
-        for (int col = 0; col < size; col++) {
-            Graph.Node<TileColor> node = board[0][col];
-            if (node.getData() == TileColor.WHITE) {
-                islands.add(node.find());
-            }
-        }
+    @Override
+    public int getScore(TileColor tileColor) {
+        return islandCounts[tileColor.ordinal()];
+    }
 
-        // Check for matches in the bottom row.
-        for (int col = 0; col < size; col++) {
-            Graph.Node<TileColor> node = board[size - 1][col];
-            if (node.getData() == TileColor.WHITE && islands.contains(node.find())) {
-                return true;
+    /**
+     * The adjacency of cells on a board of a given size, shared by all
+     * models of that size.
+     */
+    private static class Topology {
+        private static final Map<Integer, Topology> CACHE = new ConcurrentHashMap<>();
+
+        // Each cell (row, col) is adjacent to (row, col +/- 1),
+        // (row +/- 1, col), (row + 1, col + 1), and (row - 1, col - 1).
+        private static final int[][] OFFSETS = {{0, 1}, {1, 1}, {1, 0}, {0, -1}, {-1, -1}, {-1, 0}};
+
+        // The neighbors of cell i are neighbors[neighborStart[i]] through
+        // neighbors[neighborStart[i + 1] - 1].
+        private final int[] neighborStart;
+        private final int[] neighbors;
+
+        private Topology(int size) {
+            neighborStart = new int[size * size + 1];
+            int[] allNeighbors = new int[size * size * OFFSETS.length];
+            int count = 0;
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    neighborStart[row * size + col] = count;
+                    for (int[] offset : OFFSETS) {
+                        if (isInBounds(size, row + offset[0], col + offset[1])) {
+                            allNeighbors[count++] = (row + offset[0]) * size + col + offset[1];
+                        }
+                    }
+                }
             }
+            neighborStart[size * size] = count;
+            neighbors = Arrays.copyOf(allNeighbors, count);
         }
-        return false;
-    }
 
-    @Override
-    public int getScore(TileColor tileColor) {
-        return graph.getSetCount(tileColor);
+        private static Topology forSize(int size) {
+            return CACHE.computeIfAbsent(size, Topology::new);
+        }
     }
 }
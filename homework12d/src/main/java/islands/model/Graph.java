@@ -3,17 +3,50 @@ package islands.model;
 import java.util.*;
 
 /**
- * A graph.
+ * A graph whose nodes are partitioned into disjoint sets.
+ * <p>
+ * Each node has an index, the order in which it was added. The sets are
+ * kept in a {@link DisjointSets} over the indices, and the neighbors of
+ * every node in one flat table of indices, with a fixed number of slots
+ * per node that is doubled if a node needs more.
  *
  * @param <T> the type of data held in nodes of the graph
+ * @see DisjointSets
  */
 public class Graph<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+    // Enough for any cell of a hex board.
+    private static final int DEFAULT_EDGES_PER_NODE = 6;
+
     private final List<Node<T>> nodes = new ArrayList<>();
+    private final DisjointSets sets;
+    // The neighbors of node i are neighbors[i * edgesPerNode] through
+    // neighbors[i * edgesPerNode + degrees[i] - 1].
+    private int edgesPerNode;
+    private int[] neighbors;
+    private int[] degrees;
 
     /**
      * Constructs an empty graph.
      */
     public Graph() {
+        sets = new DisjointSets();
+        edgesPerNode = DEFAULT_EDGES_PER_NODE;
+        neighbors = new int[DEFAULT_CAPACITY * edgesPerNode];
+        degrees = new int[DEFAULT_CAPACITY];
+    }
+
+    // needed for deepCopy()
+    private Graph(Graph<T> other) {
+        sets = other.sets.deepCopy();
+        edgesPerNode = other.edgesPerNode;
+        neighbors = other.neighbors.clone();
+        degrees = other.degrees.clone();
+        // Nodes have the same indices in both graphs, so the edges need no
+        // translation.
+        for (Node<T> oldNode : other.nodes) {
+            nodes.add(new Node<>(this, oldNode.index, oldNode.data));
+        }
     }
 
     /**
@@ -22,27 +55,7 @@ public class Graph<T> {
      * @return the new graph
      */
     public Graph<T> deepCopy() {
-        Graph<T> newGraph = new Graph<>();
-        Map<Node<T>, Node<T>> translation = new HashMap<>();
-
-        // Translate nodes.
-        for (Node<T> oldNode : getNodes()) {
-            Node<T> newNode = newGraph.addNode(oldNode.data);
-            translation.put(oldNode, newNode);
-        }
-
-        // Fix parents and neighbors.
-        for (Node<T> oldNode : getNodes()) {
-            Node<T> newNode = translation.get(oldNode);
-            newNode.parent = translation.get(oldNode.find());
-            // Translate edges.
-            newNode.neighbors.clear();
-            for (Node<T> neighbor : oldNode.getNeighbors()) {
-                newNode.addEdge(translation.get(neighbor));
-            }
-        }
-
-        return newGraph;
+        return new Graph<>(this);
     }
 
     /**
@@ -52,9 +65,37 @@ public class Graph<T> {
      * @return the new node
      */
     public Node<T> addNode(T data) {
-        Node<T> node = new Node<>(data);
-        nodes.add(node);
-        return node;
+        return new Node<>(this, data);
+    }
+
+    // Adds the index of a new node, which has no neighbors.
+    private int addIndex() {
+        int index = sets.add();
+        if (index == degrees.length) {
+            int capacity = 2 * degrees.length;
+            degrees = Arrays.copyOf(degrees, capacity);
+            neighbors = Arrays.copyOf(neighbors, capacity * edgesPerNode);
+        }
+        return index;
+    }
+
+    // Adds a neighbor to the node with the specified index.
+    private void addNeighbor(int index, int neighbor) {
+        if (degrees[index] == edgesPerNode) {
+            widen();
+        }
+        neighbors[index * edgesPerNode + degrees[index]++] = neighbor;
+    }
+
+    // Doubles the number of neighbor slots for each node.
+    private void widen() {
+        int newEdgesPerNode = 2 * edgesPerNode;
+        int[] newNeighbors = new int[degrees.length * newEdgesPerNode];
+        for (int i = 0; i < nodes.size(); i++) {
+            System.arraycopy(neighbors, i * edgesPerNode, newNeighbors, i * newEdgesPerNode, degrees[i]);
+        }
+        edgesPerNode = newEdgesPerNode;
+        neighbors = newNeighbors;
     }
 
     /**
@@ -75,13 +116,18 @@ public class Graph<T> {
      * @return the number of sets with nodes having this value
      */
     public int getSetCount(T data) {
-        Set<Node<T>> reps = new HashSet<>();
+        boolean[] isCounted = new boolean[nodes.size()];
+        int count = 0;
         for (Node<T> node : nodes) {
             if (node.getData() == data) {
-                reps.add(node.find());
+                int rep = sets.find(node.index);
+                if (!isCounted[rep]) {
+                    isCounted[rep] = true;
+                    count++;
+                }
             }
         }
-        return reps.size();
+        return count;
     }
 
     /**
@@ -99,39 +145,68 @@ public class Graph<T> {
      * @param <T> the type of data stored in each node
      */
     public static class Node<T> {
-        private static final int MAX_EDGE_COUNT = 6;
+        private final Graph<T> graph;
+        private final int index;
         private T data;
-        private Node<T> parent;
-        private int rank = 0;
-        private List<Node<T>> neighbors;
 
         /**
-         * Constructs a new node with the provided data value and no neighbors.
+         * Constructs a new node with the provided data value and no
+         * neighbors, in a graph of its own. It can only be connected to
+         * nodes of that graph, so nodes that are to be connected should be
+         * created with {@link Graph#addNode(Object)}.
          *
          * @param data the data value
          */
         public Node(T data) {
+            this(new Graph<>(), data);
+        }
+
+        // Adds a node to the graph.
+        private Node(Graph<T> graph, T data) {
+            this(graph, graph.addIndex(), data);
+            graph.nodes.add(this);
+        }
+
+        // needed for deepCopy()
+        private Node(Graph<T> graph, int index, T data) {
+            this.graph = graph;
+            this.index = index;
             this.data = data;
-            this.parent = this;
-            this.neighbors = new ArrayList<>(MAX_EDGE_COUNT);
         }
 
         /**
          * Gets the neighbors of this node.
          *
-         * @return the neighbors of this node
+         * @return an unmodifiable view of the neighbors of this node, in
+         *         the order they were added
          */
         public List<Node<T>> getNeighbors() {
-            return neighbors;
+            return new AbstractList<>() {
+                @Override
+                public Node<T> get(int i) {
+                    Objects.checkIndex(i, size());
+                    return graph.nodes.get(graph.neighbors[index * graph.edgesPerNode + i]);
+                }
+
+                @Override
+                public int size() {
+                    return graph.degrees[index];
+                }
+            };
         }
 
         /**
          * Adds a neighbor to this node
          *
-         * @param neighbor the neighbor
+         * @param neighbor the neighbor, which must be in the same graph
+         * @throws IllegalArgumentException if the neighbor is in a
+         *                                  different graph
          */
         public void addEdge(Node<T> neighbor) {
-            neighbors.add(neighbor);
+            if (neighbor.graph != graph) {
+                throw new IllegalArgumentException("Nodes are in different graphs");
+            }
+            graph.addNeighbor(index, neighbor.index);
         }
 
         /**
@@ -152,43 +227,50 @@ public class Graph<T> {
             this.data = data;
         }
 
+        /**
+         * Adds marks to the set to which this node belongs. Marks are bit
+         * flags whose meaning is up to the caller. When two sets are merged,
+         * the merged set has the marks of both.
+         *
+         * @param bits the marks to add
+         */
+        public void mark(int bits) {
+            graph.sets.mark(index, bits);
+        }
+
+        /**
+         * Gets the marks of the set to which this node belongs.
+         *
+         * @return the marks
+         * @see #mark(int)
+         */
+        public int getMarks() {
+            return graph.sets.getMarks(index);
+        }
+
         /**
          * Finds the representative of the set to which this node belongs.
          *
          * @return the representative
          */
         public Node<T> find() {
-            if (parent == this) {
-                return this;
-            }
-            // For now, don't use path compression.
-            return parent.find();
+            return graph.nodes.get(graph.sets.find(index));
         }
 
         /**
          * Merges the two sets to which this node and the other node belong.
          *
-         * @param other the other node
+         * @param other the other node, which must be in the same graph
+         * @return true if the nodes were in different sets, false if they
+         *         were already in the same set
+         * @throws IllegalArgumentException if the other node is in a
+         *                                  different graph
          */
-        public void union(Node<T> other) {
-            Node<T> thisRep = this.find();
-            Node<T> otherRep = other.find();
-
-            // If they're already in the same set, stop.
-            if (thisRep == otherRep) {
-                return;
-            }
-
-            // Choose the node with the larger rank as the parent of the other.
-            if (thisRep.rank > otherRep.rank) {
-                otherRep.parent = thisRep;
-            } else if (thisRep.rank < otherRep.rank) {
-                thisRep.parent = otherRep.parent;
-            } else {
-                // Arbitrarily choose a node to be the parent of the other.
-                otherRep.parent = thisRep;
-                thisRep.rank++;
+        public boolean union(Node<T> other) {
+            if (other.graph != graph) {
+                throw new IllegalArgumentException("Nodes are in different graphs");
             }
+            return graph.sets.union(index, other.index);
         }
     }
 }
@@ -28,6 +28,6 @@ public record Move(int row, int col, double value)  {
         if (row == INVALID_COORD || col == INVALID_COORD) {
             throw new IllegalArgumentException("No position available");
         }
-        return new RowColPair(row, col);
+        return RowColPair.of(row, col);
     }
 }
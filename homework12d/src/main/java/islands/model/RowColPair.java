@@ -8,6 +8,34 @@ package islands.model;
  * @param column a column
  */
 public record RowColPair(int row, int column) {
+    // Pairs for every position on boards up to this size are created once
+    // and shared, so that move generation does not need to allocate.
+    private static final int MAX_INTERNED_SIZE = 32;
+    private static final RowColPair[][] INTERNED = new RowColPair[MAX_INTERNED_SIZE][MAX_INTERNED_SIZE];
+
+    static {
+        for (int row = 0; row < MAX_INTERNED_SIZE; row++) {
+            for (int col = 0; col < MAX_INTERNED_SIZE; col++) {
+                INTERNED[row][col] = new RowColPair(row, col);
+            }
+        }
+    }
+
+    /**
+     * Gets a pair with the specified row and column. Pairs for positions
+     * on boards of all supported sizes are shared rather than allocated.
+     *
+     * @param row a row
+     * @param column a column
+     * @return the pair
+     */
+    public static RowColPair of(int row, int column) {
+        if (row >= 0 && row < MAX_INTERNED_SIZE && column >= 0 && column < MAX_INTERNED_SIZE) {
+            return INTERNED[row][column];
+        }
+        return new RowColPair(row, column);
+    }
+
     @Override
     public String toString() {
         return String.format("(%d, %d)", column, row);
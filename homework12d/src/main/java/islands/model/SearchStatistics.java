@@ -0,0 +1,132 @@
+package islands.model;
+
+/**
+ * Counts of the work done by a {@link SimulatedGameTreePlayer}, either in
+ * choosing one move or since it was constructed.
+ *
+ * @param nodes                  the number of positions searched
+ * @param leaves                 the number of positions evaluated by
+ *                               {@link SimulatedGameTreePlayer#getValue(GameModel, TileColor)}
+ * @param cutoffs                the number of positions whose search was cut
+ *                               off by a move too good for the opponent to
+ *                               allow (a beta cutoff)
+ * @param firstMoveCutoffs       the number of cutoffs caused by the first
+ *                               move searched
+ * @param tableHits              the number of transposition table lookups
+ *                               that found an entry
+ * @param tableMisses            the number of transposition table lookups
+ *                               that didn't
+ * @param evaluationCacheHits    the number of values found in the
+ *                               evaluation cache
+ * @param evaluationCacheMisses  the number of values missing from the
+ *                               evaluation cache
+ * @param deepCopies             the number of models copied
+ * @param depth                  the greatest depth completely searched for
+ *                               the latest move
+ * @param elapsedNanos           the time taken, in nanoseconds
+ */
+public record SearchStatistics(
+        long nodes,
+        long leaves,
+        long cutoffs,
+        long firstMoveCutoffs,
+        long tableHits,
+        long tableMisses,
+        long evaluationCacheHits,
+        long evaluationCacheMisses,
+        long deepCopies,
+        int depth,
+        long elapsedNanos) {
+    private static final double NS_PER_S = 1e9;
+    private static final double NS_PER_MS = 1e6;
+
+    /**
+     * Gets the counts of the work done since an earlier snapshot of the
+     * same player's counts. The depth is the later one.
+     *
+     * @param earlier the earlier snapshot
+     * @return the differences
+     */
+    public SearchStatistics minus(SearchStatistics earlier) {
+        return new SearchStatistics(
+                nodes - earlier.nodes,
+                leaves - earlier.leaves,
+                cutoffs - earlier.cutoffs,
+                firstMoveCutoffs - earlier.firstMoveCutoffs,
+                tableHits - earlier.tableHits,
+                tableMisses - earlier.tableMisses,
+                evaluationCacheHits - earlier.evaluationCacheHits,
+                evaluationCacheMisses - earlier.evaluationCacheMisses,
+                deepCopies - earlier.deepCopies,
+                depth,
+                elapsedNanos - earlier.elapsedNanos);
+    }
+
+    private static double getRate(long count, long total) {
+        return total == 0 ? 0 : (double) count / total;
+    }
+
+    /**
+     * Gets the number of positions searched per second.
+     *
+     * @return the rate, or 0 if no time was recorded
+     */
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * NS_PER_S / elapsedNanos;
+    }
+
+    /**
+     * Gets the fraction of the positions that were not leaves whose search
+     * was cut off.
+     *
+     * @return the fraction, from 0 to 1
+     */
+    public double getCutoffRate() {
+        return getRate(cutoffs, nodes - leaves);
+    }
+
+    /**
+     * Gets the fraction of the cutoffs that were caused by the first move
+     * searched, which is higher the better the moves are ordered.
+     *
+     * @return the fraction, from 0 to 1
+     */
+    public double getFirstMoveCutoffRate() {
+        return getRate(firstMoveCutoffs, cutoffs);
+    }
+
+    /**
+     * Gets the fraction of transposition table lookups that found an entry.
+     *
+     * @return the fraction, from 0 to 1
+     */
+    public double getTableHitRate() {
+        return getRate(tableHits, tableHits + tableMisses);
+    }
+
+    /**
+     * Gets the fraction of evaluations found in the evaluation cache.
+     *
+     * @return the fraction, from 0 to 1
+     */
+    public double getEvaluationCacheHitRate() {
+        return getRate(evaluationCacheHits, evaluationCacheHits + evaluationCacheMisses);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%,d nodes, %,d leaves, %,.0f nodes/s, depth %d, cutoffs %.1f%% (first move %.1f%%), "
+                        + "table hits %.1f%%, evaluation cache hits %.1f%%, %,d copies, %,.1f ms",
+                nodes,
+                leaves,
+                getNodesPerSecond(),
+                depth,
+                100 * getCutoffRate(),
+                100 * getFirstMoveCutoffRate(),
+                100 * getTableHitRate(),
+                100 * getEvaluationCacheHitRate(),
+                deepCopies,
+                elapsedNanos / NS_PER_MS);
+    }
+}
@@ -9,6 +9,26 @@ import java.util.List;
  * A simulated player that uses a game tree to select moves.
  */
 public abstract class SimulatedGameTreePlayer extends SimulatedPlayer {
+    // The cache of values from getValue(), or null if it is disabled.
+    private EvaluationCache evaluationCache;
+
+    // Counts of the work done since this player was constructed. Plain
+    // fields are enough, since a player only searches on one thread at a
+    // time; parallel searches add in the counts of their helpers when they
+    // finish (see addCounts()).
+    private long nodeCount;
+    private long leafCount;
+    private long cutoffCount;
+    private long firstMoveCutoffCount;
+    private long tableHitCount;
+    private long tableMissCount;
+    private long deepCopyCount;
+    private int depthReached;
+    private long moveNanos;
+    // The counts when the current move was started.
+    private SearchStatistics countsAtMoveStart;
+    private SearchStatistics lastMoveStatistics;
+
     /**
      * Provides the play expected to lead to the result with the highest
      * value (as determined by {@link #getValue(GameModel, TileColor)}
@@ -45,6 +65,21 @@ public abstract class SimulatedGameTreePlayer extends SimulatedPlayer {
      */
     @VisibleForTesting
     public double getValue(GameModel model, TileColor tileColor) {
+        leafCount++;
+        if (evaluationCache == null) {
+            return evaluate(model, tileColor);
+        }
+        // Boards of different sizes have unrelated keys.
+        long key = model.getHashKey();
+        double value = evaluationCache.get(key);
+        if (Double.isNaN(value)) {
+            value = evaluate(model, TileColor.WHITE);
+            evaluationCache.put(key, value);
+        }
+        return tileColor == TileColor.WHITE ? value : -value;
+    }
+
+    private static double evaluate(GameModel model, TileColor tileColor) {
         int difference = model.getScore(tileColor) - model.getScore(tileColor.getOpposite());
         if (model.isGameOver()) {
             return Integer.signum(difference) * model.getSize() * model.getSize();
@@ -52,9 +87,175 @@ public abstract class SimulatedGameTreePlayer extends SimulatedPlayer {
         return difference;
     }
 
+    /**
+     * Sets whether {@link #getValue(GameModel, TileColor)} caches the values
+     * of the positions it evaluates, so that a position reached again by
+     * moves in another order isn't evaluated again. The cache is small and
+     * keeps only the latest value for each slot. It is disabled by default,
+     * since it only pays off for models whose scores are costly to compute,
+     * such as {@link BitboardGameModel}. Disabling the cache discards it and
+     * its counts.
+     *
+     * @param enabled true to cache values, false not to
+     */
+    public void setEvaluationCacheEnabled(boolean enabled) {
+        if (!enabled) {
+            evaluationCache = null;
+        } else if (evaluationCache == null) {
+            evaluationCache = new EvaluationCache();
+        }
+    }
+
+    /**
+     * Checks whether {@link #getValue(GameModel, TileColor)} caches values.
+     *
+     * @return true if the evaluation cache is enabled, false otherwise
+     * @see #setEvaluationCacheEnabled(boolean)
+     */
+    public boolean isEvaluationCacheEnabled() {
+        return evaluationCache != null;
+    }
+
+    /**
+     * Gets the number of values found in the evaluation cache since it was
+     * enabled.
+     *
+     * @return the number of hits, or 0 if the cache is disabled
+     * @see #setEvaluationCacheEnabled(boolean)
+     */
+    public long getEvaluationCacheHits() {
+        return evaluationCache == null ? 0 : evaluationCache.getHits();
+    }
+
+    /**
+     * Gets the number of values that had to be computed since the
+     * evaluation cache was enabled.
+     *
+     * @return the number of misses, or 0 if the cache is disabled
+     * @see #setEvaluationCacheEnabled(boolean)
+     */
+    public long getEvaluationCacheMisses() {
+        return evaluationCache == null ? 0 : evaluationCache.getMisses();
+    }
+
+    /**
+     * Counts a position searched.
+     */
+    protected void countNode() {
+        nodeCount++;
+    }
+
+    /**
+     * Counts a search cut off because a move was too good for the opponent
+     * to allow.
+     *
+     * @param isFirstMove whether the move was the first one searched
+     */
+    protected void countCutoff(boolean isFirstMove) {
+        cutoffCount++;
+        if (isFirstMove) {
+            firstMoveCutoffCount++;
+        }
+    }
+
+    /**
+     * Counts a transposition table lookup.
+     *
+     * @param isHit whether an entry was found
+     */
+    protected void countTableLookup(boolean isHit) {
+        if (isHit) {
+            tableHitCount++;
+        } else {
+            tableMissCount++;
+        }
+    }
+
+    /**
+     * Counts a copy of a model.
+     */
+    protected void countDeepCopy() {
+        deepCopyCount++;
+    }
+
+    /**
+     * Records the greatest depth completely searched for the current move.
+     *
+     * @param depth the depth
+     */
+    protected void setDepthReached(int depth) {
+        depthReached = depth;
+    }
+
+    /**
+     * Adds the counts of a player that helped with a search, such as one
+     * searching some of the moves on another thread, to those of this
+     * player. It should only be called once the helper has finished.
+     *
+     * @param helper the helper
+     */
+    protected void addCounts(SimulatedGameTreePlayer helper) {
+        nodeCount += helper.nodeCount;
+        leafCount += helper.leafCount;
+        cutoffCount += helper.cutoffCount;
+        firstMoveCutoffCount += helper.firstMoveCutoffCount;
+        tableHitCount += helper.tableHitCount;
+        tableMissCount += helper.tableMissCount;
+        deepCopyCount += helper.deepCopyCount;
+        if (evaluationCache != null && helper.evaluationCache != null) {
+            evaluationCache.addCounts(helper.evaluationCache);
+        }
+    }
+
+    /**
+     * Gets the number of positions searched since this player was
+     * constructed, including those of any helpers.
+     *
+     * @return the number of positions
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Gets the counts of the work done since this player was constructed.
+     * The time is that taken to choose moves with {@link
+     * #timeAndChooseNextMove(GameModel, TileColor)}.
+     *
+     * @return the counts
+     */
+    public SearchStatistics getStatistics() {
+        return new SearchStatistics(nodeCount, leafCount, cutoffCount, firstMoveCutoffCount,
+                tableHitCount, tableMissCount, getEvaluationCacheHits(), getEvaluationCacheMisses(),
+                deepCopyCount, depthReached, moveNanos);
+    }
+
+    /**
+     * Gets the counts of the work done to choose the latest move with
+     * {@link #timeAndChooseNextMove(GameModel, TileColor)}.
+     *
+     * @return the counts, or null if no move has been chosen
+     */
+    public SearchStatistics getLastMoveStatistics() {
+        return lastMoveStatistics;
+    }
+
+    @Override
+    protected void startMove() {
+        depthReached = 0;
+        countsAtMoveStart = getStatistics();
+    }
+
+    @Override
+    protected void endMove(long elapsedNanos) {
+        moveNanos += elapsedNanos;
+        lastMoveStatistics = getStatistics().minus(countsAtMoveStart);
+    }
+
     /**
      * Gets positions that moves can be played on (i.e., not covered by
-     * a tile).
+     * a tile), in row-major order. Searches should instead loop over
+     * {@link GameModel#getEmptyCell(int)}, which does not allocate.
      *
      * @param model the model
      * @return legal positions
@@ -64,7 +265,7 @@ public abstract class SimulatedGameTreePlayer extends SimulatedPlayer {
         for (int row = 0; row < model.getSize(); row++) {
             for (int col = 0; col < model.getSize(); col++) {
                 if (model.canPlay(row, col)) {
-                   legalPositions.add(new RowColPair(row, col));
+                   legalPositions.add(RowColPair.of(row, col));
                 }
             }
         }
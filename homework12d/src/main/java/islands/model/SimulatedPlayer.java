@@ -19,11 +19,30 @@ public abstract class SimulatedPlayer {
      */
     public final RowColPair timeAndChooseNextMove(GameModel model, TileColor tileColor) {
         long startTime = System.nanoTime();
+        startMove();
         RowColPair result = chooseNextMove(model, tileColor);
-        timeUsed += System.nanoTime() - startTime;
+        long elapsed = System.nanoTime() - startTime;
+        timeUsed += elapsed;
+        endMove(elapsed);
         return result;
     }
 
+    /**
+     * Called by {@link #timeAndChooseNextMove(GameModel, TileColor)} before
+     * choosing a move. This does nothing by default.
+     */
+    protected void startMove() {
+    }
+
+    /**
+     * Called by {@link #timeAndChooseNextMove(GameModel, TileColor)} after
+     * choosing a move. This does nothing by default.
+     *
+     * @param elapsedNanos the time taken to choose the move, in nanoseconds
+     */
+    protected void endMove(long elapsedNanos) {
+    }
+
     /**
      * Gets a string showing the amount of time taken by this simulator.
      *
@@ -49,6 +68,15 @@ public abstract class SimulatedPlayer {
      */
     public abstract RowColPair chooseNextMove(GameModel model, TileColor tileColor);
 
+    /**
+     * Notifies this simulator that the game it was playing has ended, so
+     * that it can save anything it learned. This does nothing by default.
+     *
+     * @param model the final game state
+     */
+    public void endGame(GameModel model) {
+    }
+
     /**
      * Gets a short unique name for this simulator, suitable for display in a
      * dropdown menu.
@@ -28,7 +28,7 @@ public class SimulatedRandomPlayer extends SimulatedPlayer {
             int col = random.nextInt(size);
 
             if (model.canPlay(row, col)) {
-                return new RowColPair(row, col);
+                return RowColPair.of(row, col);
             }
         }
 
@@ -36,7 +36,7 @@ public class SimulatedRandomPlayer extends SimulatedPlayer {
         for (int row = 0; row < size; row++) {
             for (int col = 0; col < size; col++) {
                 if (model.canPlay(row, col)) {
-                    return new RowColPair(row, col);
+                    return RowColPair.of(row, col);
                 }
             }
         }
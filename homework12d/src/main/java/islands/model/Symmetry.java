@@ -0,0 +1,123 @@
+package islands.model;
+
+/**
+ * The symmetries of an Islands of Hex board, the transformations that map
+ * every position to one with the same value for the player to move. A
+ * cell (row, col) neighbors (row, col +/- 1), (row +/- 1, col),
+ * (row + 1, col + 1), and (row - 1, col - 1), and both rotating the board
+ * 180 degrees and reflecting it across its main diagonal keep those
+ * neighbors. The reflections turn rows into columns, though, so they must
+ * also swap the colors of the tiles and of the player to move, since White
+ * connects the top and bottom rows and Black the left and right columns.
+ * <p>
+ * Each symmetry is its own inverse.
+ *
+ * @see GameModel#getHashKey(Symmetry)
+ */
+public enum Symmetry {
+    /**
+     * Leaves the board unchanged.
+     */
+    IDENTITY(false),
+
+    /**
+     * Rotates the board 180 degrees, moving (row, col) to
+     * (size - 1 - row, size - 1 - col).
+     */
+    ROTATION(false),
+
+    /**
+     * Reflects the board across its main diagonal, moving (row, col) to
+     * (col, row), and swaps the colors.
+     */
+    TRANSPOSITION(true),
+
+    /**
+     * Reflects the board across its other diagonal, moving (row, col) to
+     * (size - 1 - col, size - 1 - row), and swaps the colors.
+     */
+    ANTI_TRANSPOSITION(true);
+
+    private static final Symmetry[] VALUES = values();
+
+    private final boolean swapsColors;
+
+    Symmetry(boolean swapsColors) {
+        this.swapsColors = swapsColors;
+    }
+
+    /**
+     * Checks whether this symmetry swaps the colors of the tiles and of the
+     * player to move.
+     *
+     * @return true if the colors are swapped, false otherwise
+     */
+    public boolean swapsColors() {
+        return swapsColors;
+    }
+
+    /**
+     * Gets the cell that a cell is moved to.
+     *
+     * @param cell the cell index, row * size + column
+     * @param size the number of rows (and the number of columns) on the board
+     * @return the index of the cell it is moved to
+     */
+    public int transformCell(int cell, int size) {
+        return switch (this) {
+            case IDENTITY -> cell;
+            case ROTATION -> size * size - 1 - cell;
+            case TRANSPOSITION -> cell % size * size + cell / size;
+            case ANTI_TRANSPOSITION -> size * size - 1 - (cell % size * size + cell / size);
+        };
+    }
+
+    /**
+     * Gets the color that a color is changed to.
+     *
+     * @param tileColor the color
+     * @return the color it is changed to
+     */
+    public TileColor transformColor(TileColor tileColor) {
+        return swapsColors && tileColor != TileColor.NONE ? tileColor.getOpposite() : tileColor;
+    }
+
+    /**
+     * Gets the hash key of the transformed position, including which player
+     * is to move, so that positions that differ only in the player to move
+     * have different keys.
+     *
+     * @param model     the model
+     * @param tileColor the color of the player to move
+     * @return the key
+     * @see ZobristKeys#BLACK_TO_MOVE
+     */
+    public long getHashKey(GameModel model, TileColor tileColor) {
+        long key = model.getHashKey(this);
+        return transformColor(tileColor) == TileColor.BLACK ? key ^ ZobristKeys.BLACK_TO_MOVE : key;
+    }
+
+    /**
+     * Gets the symmetry that transforms a position into the canonical
+     * position of its class, the one with the least hash key. All
+     * equivalent positions have the same canonical position, so a result
+     * stored under its key serves all of them.
+     *
+     * @param model     the model
+     * @param tileColor the color of the player to move
+     * @return the symmetry
+     * @see #getHashKey(GameModel, TileColor)
+     */
+    public static Symmetry getCanonical(GameModel model, TileColor tileColor) {
+        Symmetry best = IDENTITY;
+        long bestKey = IDENTITY.getHashKey(model, tileColor);
+        for (int i = 1; i < VALUES.length; i++) {
+            long key = VALUES[i].getHashKey(model, tileColor);
+            if (key < bestKey) {
+                best = VALUES[i];
+                bestKey = key;
+            }
+        }
+        return best;
+    }
+}
@@ -14,7 +14,8 @@ public abstract class TimeLimitedSimulatedPlayer extends SimulatedPlayer {
      * A listener to moves provided by a linked {@link TimeLimitedSimulatedPlayer}.
      */
     public static class Listener {
-        private RowColPair move;
+        // Volatile because moves are received on the player's thread.
+        private volatile RowColPair move;
 
         /**
          * Receives the move provided by a {@link TimeLimitedSimulatedPlayer}.
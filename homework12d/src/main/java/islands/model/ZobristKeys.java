@@ -0,0 +1,134 @@
+package islands.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Random keys for Zobrist hashing of board positions. The hash of a
+ * position is the exclusive or of the keys of its occupied cells, so it
+ * can be updated with a single exclusive or whenever a tile is played or
+ * removed.
+ * <p>
+ * Keys depend only on the board size and are the same in every run, so
+ * all models of a size agree on the hash of a position, whatever their
+ * implementation. Hashes start from a non-zero base key that also depends
+ * on the size, so that positions on boards of different sizes, such as
+ * the empty boards, don't share a hash.
+ * <p>
+ * Models also keep the hash of the position transformed by each {@link
+ * Symmetry}, which is updated the same way using the key of the
+ * transformed tile, so that equivalent positions can be found without
+ * transforming boards.
+ */
+public class ZobristKeys {
+    /**
+     * The key added to hashes of positions with Black to move, by callers
+     * that need to tell them from the same tiles with White to move.
+     */
+    public static final long BLACK_TO_MOVE = 0x9E3779B97F4A7C15L;
+
+    private static final long SEED = 123;
+    private static final Map<Integer, ZobristKeys> CACHE = new ConcurrentHashMap<>();
+
+    // The size used for getFingerprint().
+    private static final int FINGERPRINT_SIZE = 2;
+
+    // The hash of the empty board under every symmetry.
+    private final long baseKey;
+    // The key of each cell for each color, indexed by TileColor ordinal.
+    // The keys for TileColor.NONE are all 0.
+    private final long[][] keys;
+    // The keys of the transformed tiles, indexed by symmetry ordinal, then
+    // like keys.
+    private final long[][][] symmetricKeys;
+
+    private ZobristKeys(int size) {
+        Random random = new Random(SEED * 31 + size);
+        keys = new long[TileColor.values().length][size * size];
+        for (TileColor color : TileColor.values()) {
+            if (color != TileColor.NONE) {
+                for (int cell = 0; cell < size * size; cell++) {
+                    keys[color.ordinal()][cell] = random.nextLong();
+                }
+            }
+        }
+        long base;
+        do {
+            base = random.nextLong();
+        } while (base == 0);
+        baseKey = base;
+        symmetricKeys = new long[Symmetry.values().length][][];
+        for (Symmetry symmetry : Symmetry.values()) {
+            long[][] transformed = new long[keys.length][size * size];
+            for (TileColor color : TileColor.values()) {
+                for (int cell = 0; cell < size * size; cell++) {
+                    transformed[color.ordinal()][cell] =
+                            get(symmetry.transformColor(color), symmetry.transformCell(cell, size));
+                }
+            }
+            symmetricKeys[symmetry.ordinal()] = transformed;
+        }
+    }
+
+    /**
+     * Gets the keys for boards of the specified size.
+     *
+     * @param size the number of rows (and the number of columns) on the board
+     * @return the keys
+     */
+    public static ZobristKeys forSize(int size) {
+        return CACHE.computeIfAbsent(size, ZobristKeys::new);
+    }
+
+    /**
+     * Gets a value that changes whenever the keys do, such as when the seed
+     * is changed, so that hashes saved in files can be checked against the
+     * current keys.
+     *
+     * @return the value
+     */
+    public static long getFingerprint() {
+        return forSize(FINGERPRINT_SIZE).baseKey;
+    }
+
+    /**
+     * Creates the hash keys of the empty board under every symmetry, which
+     * {@link #toggle(long[], TileColor, int)} then updates as tiles are
+     * played.
+     *
+     * @return the keys, indexed by {@link Symmetry} ordinal
+     */
+    public long[] newHashKeys() {
+        long[] hashKeys = new long[Symmetry.values().length];
+        Arrays.fill(hashKeys, baseKey);
+        return hashKeys;
+    }
+
+    /**
+     * Gets the key of a tile of the specified color on the specified cell.
+     *
+     * @param tileColor the color
+     * @param cell      the cell index, row * size + column
+     * @return the key, which is 0 for {@link TileColor#NONE}
+     */
+    public long get(TileColor tileColor, int cell) {
+        return keys[tileColor.ordinal()][cell];
+    }
+
+    /**
+     * Updates the hash keys of a position under every symmetry for a tile
+     * of the specified color being played on, or removed from, the
+     * specified cell.
+     *
+     * @param hashKeys  the keys, indexed by {@link Symmetry} ordinal
+     * @param tileColor the color
+     * @param cell      the cell index, row * size + column
+     */
+    public void toggle(long[] hashKeys, TileColor tileColor, int cell) {
+        for (int i = 0; i < hashKeys.length; i++) {
+            hashKeys[i] ^= symmetricKeys[i][tileColor.ordinal()][cell];
+        }
+    }
+}
@@ -1,12 +1,106 @@
 package islands.model.student;
 
 import islands.model.*;
+import islands.model.student.TranspositionTable.Bound;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * A player applying alpha-beta pruning to the minimax algorithm.
+ * <p>
+ * Search results are recorded in a {@link TranspositionTable} along with
+ * whether they are exact or bounds. When a position is reached again, by
+ * the same moves in another order, a result from a search at least as deep
+ * can narrow the window or end the search of that position at once, and
+ * its best move is tried first. Results are stored under the canonical
+ * position (see {@link Symmetry}), so they also serve the positions that
+ * are equivalent to it by symmetry.
+ * <p>
+ * Searches can be repeated to increasing depths with
+ * {@link #searchIteratively(GameModel, TileColor, int, Consumer)}. Each
+ * search tries the principal variation (the line of best play) found by the
+ * previous one first, which makes cutoffs come early. Searches check every
+ * so often whether their thread has been interrupted and, if so, throw
+ * {@link SearchInterruptedException}.
+ * <p>
+ * With more than one thread (see {@link #setThreadCount(int)}), the first
+ * move from the root position is searched serially to get a bound, and the
+ * rest are searched in parallel, sharing the best value found so far. The
+ * move chosen is the same as with a serial search.
+ *
+ * @see PrincipalVariationPlayer
  */
 public class AlphaBetaPlayer extends MinimaxPlayer {
-    private final TranspositionTable table = new TranspositionTable();
+    // How many nodes to visit between checks for interruption. This must be
+    // a power of 2.
+    private static final int NODES_PER_INTERRUPT_CHECK = 1024;
+
+    // The minimum remaining depth at which results are stored in and
+    // looked up from the table. Shallower nodes are too cheap to be worth
+    // it.
+    private static final int MIN_TABLE_DEPTH = 2;
+
+    // How far from the value of the previous iteration a principal
+    // variation search's aspiration window reaches on each side. Values
+    // often change by 1 from one depth to the next.
+    private static final double ASPIRATION_WIDTH = 2;
+
+    private final TranspositionTable table;
+    private final boolean isPrincipalVariationSearch;
+    // Null when searching serially.
+    private ForkJoinPool pool;
+    // Set to stop the workers of a parallel search. Null unless this is
+    // one of those workers.
+    private AtomicBoolean stopSignal;
+
+    // Null until the first search.
+    private MoveOrdering ordering;
+    private boolean orderingHeuristicsEnabled = true;
+    // The best line found from each ply of the current search is
+    // pv[ply][ply] through pv[ply][pvLength[ply] - 1].
+    private int[][] pv = new int[0][];
+    private int[] pvLength = new int[0];
+    // The best line found by the previous search, and whether the current
+    // search is still following it.
+    private int[] previousPv = new int[0];
+    private boolean isFollowingPv;
+
+    /**
+     * Constructs a player with its own transposition table, which is a
+     * {@link ConcurrentTranspositionTable} so that it can be shared by the
+     * threads of a parallel search.
+     */
+    public AlphaBetaPlayer() {
+        this(new ConcurrentTranspositionTable());
+    }
+
+    /**
+     * Constructs a player that records the results of its searches in the
+     * specified transposition table: values that are exact or bound the
+     * true value from above or below, together with best moves. Results
+     * found there, including those of other players sharing the table, can
+     * end the search of a position or narrow its window, and their moves
+     * are tried first. A table shared with players searching on other threads, or used by
+     * a parallel search, must be a {@link ConcurrentTranspositionTable}.
+     *
+     * @param table the table
+     */
+    public AlphaBetaPlayer(TranspositionTable table) {
+        this(table, false);
+    }
+
+    // Enables PrincipalVariationPlayer to turn on principal variation search.
+    AlphaBetaPlayer(TranspositionTable table, boolean isPrincipalVariationSearch) {
+        this.table = table;
+        this.isPrincipalVariationSearch = isPrincipalVariationSearch;
+    }
 
     @Override
     public String getName() {
@@ -15,63 +109,471 @@ public class AlphaBetaPlayer extends MinimaxPlayer {
 
     @Override
     public RowColPair chooseNextMove(GameModel model, TileColor tileColor) {
-        Move move = getMyMove(model, MAX_DEPTH, Double.MIN_VALUE, Double.MAX_VALUE, tileColor);
-        return move.getPosition();
+        return chooseNextMove(model, MAX_DEPTH, tileColor);
     }
 
     // Enables TournamentPlayer to select depth of search.
     public RowColPair chooseNextMove(GameModel model, int depth, TileColor tileColor) {
-        Move move = getMyMove(model, depth, Double.MIN_VALUE, Double.MAX_VALUE, tileColor);
-        return move.getPosition();
+        return search(model, depth, tileColor).getPosition();
+    }
+
+    /**
+     * Sets the number of threads used to search the moves from the root
+     * position.
+     *
+     * @param threads the number of threads, with 1 meaning a serial search
+     * @throws IllegalArgumentException if threads is less than 1
+     */
+    public void setThreadCount(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("There must be at least one thread");
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+        pool = threads == 1 ? null : new ForkJoinPool(threads);
+    }
+
+    /**
+     * Turns the killer, history, and adjacency move-ordering heuristics on
+     * or off. They are on by default.
+     *
+     * @param enabled true to use the heuristics, false otherwise
+     * @see MoveOrdering#setHeuristicsEnabled(boolean)
+     */
+    public void setMoveOrderingHeuristicsEnabled(boolean enabled) {
+        orderingHeuristicsEnabled = enabled;
+        if (ordering != null) {
+            ordering.setHeuristicsEnabled(enabled);
+        }
+    }
+
+    /**
+     * Searches to increasing depths, starting at 1, until the maximum depth
+     * is reached, the whole game tree has been searched, or the outcome of
+     * the game is certain. The best move found at each depth is passed to
+     * the consumer as soon as that depth is completed.
+     *
+     * @param model     the current game state, which is restored before
+     *                  this returns or throws
+     * @param tileColor the color of the player to move
+     * @param maxDepth  the maximum depth to search
+     * @param consumer  the consumer of the best move found at each depth
+     * @return the best move found at the greatest depth searched
+     * @throws SearchInterruptedException if the thread is interrupted
+     */
+    public Move searchIteratively(GameModel model, TileColor tileColor, int maxDepth, Consumer<Move> consumer) {
+        return searchIteratively(model, tileColor, 1, maxDepth, consumer);
+    }
+
+    // Like searchIteratively(), but starting at the specified depth.
+    Move searchIteratively(GameModel model, TileColor tileColor, int minDepth, int maxDepth, Consumer<Move> consumer) {
+        previousPv = new int[0];
+        int maxSize = model.getSize() * model.getSize();
+        Move move = null;
+        for (int depth = minDepth; depth <= Math.min(maxDepth, model.getEmptyCellCount()); depth++) {
+            move = isPrincipalVariationSearch && move != null
+                    ? searchWithAspiration(model, depth, tileColor, move.value())
+                    : search(model, depth, tileColor);
+            consumer.accept(move);
+            if (Math.abs(move.value()) >= maxSize) {
+                // Someone can force a win, so searching deeper won't help.
+                break;
+            }
+        }
+        return move;
+    }
+
+    /**
+     * Searches to the specified depth, trying the principal variation found
+     * by the previous search first.
+     *
+     * @param model     the current game state, which is restored before
+     *                  this returns or throws
+     * @param depth     the maximum number of moves ahead to search
+     * @param tileColor the color of the player to move
+     * @return the best move
+     * @throws SearchInterruptedException if the thread is interrupted
+     */
+    public Move search(GameModel model, int depth, TileColor tileColor) {
+        return search(model, depth, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, tileColor);
+    }
+
+    // Searches with the specified window, unless searching in parallel.
+    private Move search(GameModel model, int depth, double alpha, double beta, TileColor tileColor) {
+        prepare(model.getSize(), depth);
+        isFollowingPv = true;
+        Move move = pool != null && depth > 1
+                ? getMyMoveInParallel(model, depth, tileColor)
+                : getMyMove(model, 0, depth, alpha, beta, tileColor);
+        previousPv = Arrays.copyOf(pv[0], pvLength[0]);
+        setDepthReached(depth);
+        return move;
+    }
+
+    // Searches with a narrow window around the value found by the previous
+    // iteration. If the value falls outside it, the window is opened on
+    // that side and the search repeated.
+    private Move searchWithAspiration(GameModel model, int depth, TileColor tileColor, double guess) {
+        double alpha = guess - ASPIRATION_WIDTH;
+        double beta = guess + ASPIRATION_WIDTH;
+        while (true) {
+            Move move = search(model, depth, alpha, beta, tileColor);
+            if (move.value() <= alpha) {
+                alpha = Double.NEGATIVE_INFINITY;
+            } else if (move.value() >= beta) {
+                beta = Double.POSITIVE_INFINITY;
+            } else {
+                return move;
+            }
+        }
+    }
+
+    // Makes sure the buffers are big enough for a search to this depth.
+    private void prepare(int size, int depth) {
+        if (ordering == null) {
+            ordering = new MoveOrdering(size);
+            ordering.setHeuristicsEnabled(orderingHeuristicsEnabled);
+        }
+        ordering.startSearch(depth);
+        if (pv.length <= depth) {
+            pv = new int[depth + 1][depth + 1];
+            pvLength = new int[depth + 1];
+        }
+    }
+
+    // Counts a node, checking now and then whether to stop.
+    private void visitNode() {
+        countNode();
+        if ((getNodeCount() & (NODES_PER_INTERRUPT_CHECK - 1)) == 0
+                && (Thread.interrupted() || stopSignal != null && stopSignal.get())) {
+            throw new SearchInterruptedException();
+        }
+    }
+
+    // Searches the root position, handing all but the first move to the
+    // pool. Each worker only needs to know whether its move is better than
+    // the best one known when it starts (see RootBound), so the first of
+    // the best moves is chosen, as in a serial search.
+    private Move getMyMoveInParallel(GameModel model, int depth, TileColor tileColor) {
+        visitNode();
+        pvLength[0] = 0;
+        if (model.isGameOver()) {
+            return new Move(getValue(model, tileColor));
+        }
+        int size = model.getSize();
+        int pvCell = getPvCell(0);
+        int count = ordering.orderMoves(model, 0, depth, tileColor, pvCell,
+                getTableCell(model, tileColor));
+        int[] moves = new int[count];
+        for (int i = 0; i < count; i++) {
+            moves[i] = ordering.getMove(0, i);
+        }
+        isFollowingPv = moves[0] == pvCell;
+        model.makePlay(moves[0] / size, moves[0] % size, tileColor);
+        double value;
+        try {
+            value = getOpponentValue(model, 1, depth - 1,
+                    Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, tileColor.getOpposite());
+        } finally {
+            model.undoPlay();
+        }
+        updatePv(0, moves[0]);
+
+        RootBound bound = new RootBound(value);
+        AtomicBoolean stop = new AtomicBoolean();
+        AlphaBetaPlayer[] workers = new AlphaBetaPlayer[count];
+        List<ForkJoinTask<Double>> tasks = new ArrayList<>(count);
+        for (int i = 1; i < count; i++) {
+            GameModel copy = model.deepCopy();
+            countDeepCopy();
+            copy.makePlay(moves[i] / size, moves[i] % size, tileColor);
+            AlphaBetaPlayer worker = new AlphaBetaPlayer(table, isPrincipalVariationSearch);
+            worker.stopSignal = stop;
+            worker.setEvaluationCacheEnabled(isEvaluationCacheEnabled());
+            workers[i] = worker;
+            int index = i;
+            tasks.add(pool.submit(() -> worker.searchAfterRootMove(copy, index, depth - 1, bound, tileColor.getOpposite())));
+        }
+
+        int bestIndex = 0;
+        try {
+            for (int i = 1; i < count; i++) {
+                double opponentVal = tasks.get(i - 1).get();
+                if (value < opponentVal) {
+                    value = opponentVal;
+                    bestIndex = i;
+                }
+                addCounts(workers[i]);
+            }
+        } catch (InterruptedException e) {
+            stopWorkers(stop, tasks);
+            throw new SearchInterruptedException();
+        } catch (ExecutionException e) {
+            stopWorkers(stop, tasks);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        if (bestIndex > 0) {
+            // Take the rest of the line from the worker that found it.
+            AlphaBetaPlayer worker = workers[bestIndex];
+            pv[0][0] = moves[bestIndex];
+            System.arraycopy(worker.pv[1], 1, pv[0], 1, worker.pvLength[1] - 1);
+            pvLength[0] = worker.pvLength[1];
+        }
+        return new Move(moves[bestIndex] / size, moves[bestIndex] % size, value);
+    }
+
+    private static void stopWorkers(AtomicBoolean stop, List<ForkJoinTask<Double>> tasks) {
+        stop.set(true);
+        for (ForkJoinTask<Double> task : tasks) {
+            task.cancel(false);
+        }
+    }
+
+    // Runs on a worker of a parallel search. The model is a copy of the
+    // root position after the root move with the given index.
+    private double searchAfterRootMove(GameModel model, int index, int depth, RootBound bound, TileColor tileColor) {
+        prepare(model.getSize(), depth + 1);
+        double alpha = bound.getAlpha(index);
+        double value = getOpponentValue(model, 1, depth, alpha, Double.POSITIVE_INFINITY, tileColor);
+        if (value > alpha) {
+            // The value is exact, not just an upper bound.
+            bound.offer(value, index);
+        }
+        return value;
+    }
+
+    /**
+     * The best value of the root moves searched so far by a parallel
+     * search, and the index of the first move with that value.
+     */
+    private static class RootBound {
+        private double value;
+        private int index;
+
+        private RootBound(double value) {
+            this.value = value;
+        }
+
+        // A move before the best one must be searched with a window that
+        // includes the best value, since it would win a tie. A move after
+        // it only has to be shown to be no better.
+        private synchronized double getAlpha(int moveIndex) {
+            return moveIndex < index ? Math.nextDown(value) : value;
+        }
+
+        private synchronized void offer(double moveValue, int moveIndex) {
+            if (moveValue > value || moveValue == value && moveIndex < index) {
+                value = moveValue;
+                index = moveIndex;
+            }
+        }
+    }
+
+    // Gets the best move recorded for a position, which is stored under its
+    // canonical position (see Symmetry).
+    private int getTableCell(GameModel model, TileColor tileColor) {
+        Symmetry symmetry = Symmetry.getCanonical(model, tileColor);
+        int cell = table.getBestCell(symmetry.getHashKey(model, tileColor));
+        return TranspositionTable.transformCell(symmetry, cell, model.getSize());
+    }
+
+    // Table entries hold values from the point of view of the player to
+    // move, so at the opponent's nodes they are negated and their bounds
+    // swapped.
+    private static Bound getOpposite(Bound bound) {
+        return switch (bound) {
+            case EXACT -> Bound.EXACT;
+            case LOWER -> Bound.UPPER;
+            case UPPER -> Bound.LOWER;
+        };
+    }
+
+    // Gets the bound that a value found with the given window represents.
+    private static Bound getBound(double value, double alpha, double beta) {
+        if (value <= alpha) {
+            return Bound.UPPER;
+        }
+        return value >= beta ? Bound.LOWER : Bound.EXACT;
+    }
+
+    // Gets the move from the previous principal variation for this ply,
+    // or -1 if the search is no longer following it.
+    private int getPvCell(int ply) {
+        return isFollowingPv && ply < previousPv.length ? previousPv[ply] : -1;
+    }
+
+    // Records that the best line from this ply starts with the cell and
+    // continues with the best line from the next ply.
+    private void updatePv(int ply, int cell) {
+        pv[ply][ply] = cell;
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+        pvLength[ply] = pvLength[ply + 1];
     }
 
     // This doesn't override the ordinary getMyMove() method because it adds
-    // alpha and beta parameters.
-    private Move getMyMove(GameModel model, int depth, double alpha, double beta, TileColor tileColor) {
+    // ply, alpha and beta parameters.
+    private Move getMyMove(GameModel model, int ply, int depth, double alpha, double beta, TileColor tileColor) {
         if (depth < 0) {
             throw new IllegalArgumentException();
         }
+        visitNode();
+        pvLength[ply] = ply;
         if (depth == 0 || model.isGameOver()) {
             return new Move(getValue(model, tileColor));
         }
+        int size = model.getSize();
+        Symmetry symmetry = Symmetry.getCanonical(model, tileColor);
+        long key = symmetry.getHashKey(model, tileColor);
+        int tableCell = -1;
+        if (depth >= MIN_TABLE_DEPTH) {
+            long entry = table.probe(key);
+            countTableLookup(entry != TranspositionTable.NO_ENTRY);
+            if (entry != TranspositionTable.NO_ENTRY) {
+                tableCell = TranspositionTable.transformCell(symmetry, TranspositionTable.getCell(entry), size);
+                // The root needs a move, not just a value.
+                if (TranspositionTable.getDepth(entry) >= depth && ply > 0) {
+                    double stored = TranspositionTable.getValue(entry);
+                    switch (TranspositionTable.getBound(entry)) {
+                        case EXACT -> {
+                            return new Move(stored);
+                        }
+                        case LOWER -> alpha = Math.max(alpha, stored);
+                        case UPPER -> beta = Math.min(beta, stored);
+                    }
+                    if (beta <= alpha) {
+                        return new Move(stored);
+                    }
+                }
+            }
+        }
+        double originalAlpha = alpha;
+        int pvCell = getPvCell(ply);
+        int count = ordering.orderMoves(model, ply, depth, tileColor, pvCell, tableCell);
         double value = -Double.MAX_VALUE;
-        Move bestMove = null;
-        for (RowColPair move : getLegalPositions(model)) {
-            GameModel copy = model.deepCopy();
-            copy.makePlay(move.row(), move.column(), tileColor);
-            double opponentVal = getOpponentValue(copy, depth - 1, alpha, beta, tileColor.getOpposite());
+        int bestCell = -1;
+        for (int i = 0; i < count; i++) {
+            int cell = ordering.getMove(ply, i);
+            isFollowingPv = cell == pvCell;
+            model.makePlay(cell / size, cell % size, tileColor);
+            double opponentVal;
+            try {
+                if (i == 0 || !isPrincipalVariationSearch) {
+                    opponentVal = getOpponentValue(model, ply + 1, depth - 1, alpha, beta, tileColor.getOpposite());
+                } else {
+                    // Check with a null window whether the move is better
+                    // than the best so far, and search it again only if so.
+                    // Then the result is a lower bound, which narrows the
+                    // window and is the value if the search fails low.
+                    opponentVal = getOpponentValue(model, ply + 1, depth - 1,
+                            alpha, Math.nextUp(alpha), tileColor.getOpposite());
+                    if (opponentVal > alpha && opponentVal < beta) {
+                        opponentVal = Math.max(opponentVal, getOpponentValue(model, ply + 1, depth - 1,
+                                opponentVal, beta, tileColor.getOpposite()));
+                    }
+                }
+            } finally {
+                model.undoPlay();
+            }
             if (value < opponentVal) {
-                bestMove = new Move(move.row(), move.column(), opponentVal);
+                bestCell = cell;
+                updatePv(ply, cell);
             }
             value = Math.max(value, opponentVal);
             alpha = Math.max(alpha, value);
             if (beta <= alpha) {
+                ordering.recordCutoff(ply, depth, i, cell, tileColor);
+                countCutoff(i == 0);
                 break;
             }
         }
-        return bestMove;
+        if (depth >= MIN_TABLE_DEPTH) {
+            table.putEntry(key, depth, value, getBound(value, originalAlpha, beta),
+                    TranspositionTable.transformCell(symmetry, bestCell, size));
+        }
+        return new Move(bestCell / size, bestCell % size, value);
     }
 
     // This doesn't override the ordinary getMyMove() method because it adds
-    // alpha and beta parameters.
-    private double getOpponentValue(GameModel model, int depth, double alpha, double beta, TileColor tileColor) {
+    // ply, alpha and beta parameters.
+    private double getOpponentValue(GameModel model, int ply, int depth, double alpha, double beta, TileColor tileColor) {
         if (depth < 0) {
             throw new IllegalArgumentException();
         }
+        visitNode();
+        pvLength[ply] = ply;
         if (depth == 0 || model.isGameOver()) {
-            return new Move(getValue(model, tileColor)).value();
+            return getValue(model, tileColor.getOpposite());
         }
+        int size = model.getSize();
+        Symmetry symmetry = Symmetry.getCanonical(model, tileColor);
+        long key = symmetry.getHashKey(model, tileColor);
+        int tableCell = -1;
+        if (depth >= MIN_TABLE_DEPTH) {
+            long entry = table.probe(key);
+            countTableLookup(entry != TranspositionTable.NO_ENTRY);
+            if (entry != TranspositionTable.NO_ENTRY) {
+                tableCell = TranspositionTable.transformCell(symmetry, TranspositionTable.getCell(entry), size);
+                if (TranspositionTable.getDepth(entry) >= depth) {
+                    double stored = -TranspositionTable.getValue(entry);
+                    switch (getOpposite(TranspositionTable.getBound(entry))) {
+                        case EXACT -> {
+                            return stored;
+                        }
+                        case LOWER -> alpha = Math.max(alpha, stored);
+                        case UPPER -> beta = Math.min(beta, stored);
+                    }
+                    if (beta <= alpha) {
+                        return stored;
+                    }
+                }
+            }
+        }
+        double originalBeta = beta;
+        int pvCell = getPvCell(ply);
+        int count = ordering.orderMoves(model, ply, depth, tileColor, pvCell, tableCell);
         double value = Double.MAX_VALUE;
-        for (RowColPair move : getLegalPositions(model)) {
-            GameModel copy = model.deepCopy();
-            copy.makePlay(move.row(), move.column(), tileColor);
-            double myVal = getMyMove(model, depth - 1, alpha, beta, tileColor.getOpposite()).value();
+        int bestCell = -1;
+        for (int i = 0; i < count; i++) {
+            int cell = ordering.getMove(ply, i);
+            isFollowingPv = cell == pvCell;
+            model.makePlay(cell / size, cell % size, tileColor);
+            double myVal;
+            try {
+                if (i == 0 || !isPrincipalVariationSearch) {
+                    myVal = getMyMove(model, ply + 1, depth - 1, alpha, beta, tileColor.getOpposite()).value();
+                } else {
+                    // As in getMyMove(), but the null-window result is an
+                    // upper bound.
+                    myVal = getMyMove(model, ply + 1, depth - 1,
+                            Math.nextDown(beta), beta, tileColor.getOpposite()).value();
+                    if (myVal < beta && myVal > alpha) {
+                        myVal = Math.min(myVal, getMyMove(model, ply + 1, depth - 1,
+                                alpha, myVal, tileColor.getOpposite()).value());
+                    }
+                }
+            } finally {
+                model.undoPlay();
+            }
+            if (myVal < value) {
+                bestCell = cell;
+                updatePv(ply, cell);
+            }
             value = Math.min(value, myVal);
             beta = Math.min(beta, value);
             if (beta <= alpha) {
+                ordering.recordCutoff(ply, depth, i, cell, tileColor);
+                countCutoff(i == 0);
                 break;
             }
         }
+        if (depth >= MIN_TABLE_DEPTH) {
+            table.putEntry(key, depth, -value, getOpposite(getBound(value, alpha, originalBeta)),
+                    TranspositionTable.transformCell(symmetry, bestCell, size));
+        }
         return value;
     }
 }
@@ -0,0 +1,79 @@
+package islands.model.student;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A {@link TranspositionTable} whose longs are kept in byte buffers outside
+ * the Java heap, in the same layout as the on-heap table. Since a buffer
+ * holds at most 2 GB, large tables are split into chunks. Like {@link
+ * ConcurrentTranspositionTable}, each long is read and written atomically,
+ * so the table can be shared between threads.
+ */
+abstract class BufferTranspositionTable extends TranspositionTable {
+    // Longs are big-endian, so that files written on one machine can be
+    // read on another.
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final int LOG_LONGS_PER_CHUNK = 27; // 1 GB
+    private static final int LONGS_PER_CHUNK = 1 << LOG_LONGS_PER_CHUNK;
+
+    private final ByteBuffer[] chunks;
+
+    /**
+     * Constructs a table with the specified number of buckets.
+     *
+     * @param bucketCount the number of buckets, a power of two
+     * @param chunks      the buffers holding the longs, each of {@link
+     *                    #getChunkSize(int)} bytes
+     */
+    BufferTranspositionTable(int bucketCount, ByteBuffer[] chunks) {
+        super(bucketCount, false);
+        this.chunks = chunks;
+    }
+
+    /**
+     * Gets the number of bytes in each chunk of a table with the specified
+     * number of buckets.
+     *
+     * @param bucketCount the number of buckets, a power of two
+     * @return the number of bytes
+     */
+    static int getChunkSize(int bucketCount) {
+        return (int) Math.min((long) bucketCount * LONGS_PER_BUCKET, LONGS_PER_CHUNK) * Long.BYTES;
+    }
+
+    /**
+     * Gets the number of chunks of a table with the specified number of
+     * buckets.
+     *
+     * @param bucketCount the number of buckets, a power of two
+     * @return the number of chunks
+     */
+    static int getChunkCount(int bucketCount) {
+        return (int) ((long) bucketCount * LONGS_PER_BUCKET * Long.BYTES / getChunkSize(bucketCount));
+    }
+
+    /**
+     * Gets the chunks holding the longs of the table.
+     *
+     * @return the chunks
+     */
+    ByteBuffer[] getChunks() {
+        return chunks;
+    }
+
+    @Override
+    long read(int index) {
+        return (long) LONGS.getOpaque(chunks[index >>> LOG_LONGS_PER_CHUNK],
+                (index & (LONGS_PER_CHUNK - 1)) * Long.BYTES);
+    }
+
+    @Override
+    void write(int index, long value) {
+        LONGS.setOpaque(chunks[index >>> LOG_LONGS_PER_CHUNK],
+                (index & (LONGS_PER_CHUNK - 1)) * Long.BYTES, value);
+    }
+}
@@ -10,7 +10,23 @@ import islands.model.TileColor;
  * @see TranspositionTable
  */
 public class CachingMinimaxPlayer extends MinimaxPlayer {
-    private TranspositionTable table = new TranspositionTable();
+    private final TranspositionTable table;
+
+    /**
+     * Constructs a player with its own transposition table.
+     */
+    public CachingMinimaxPlayer() {
+        this(new TranspositionTable());
+    }
+
+    /**
+     * Constructs a player that caches its moves in the specified table.
+     *
+     * @param table the table
+     */
+    public CachingMinimaxPlayer(TranspositionTable table) {
+        this.table = table;
+    }
 
     @Override
     public String getName() {
@@ -19,12 +35,14 @@ public class CachingMinimaxPlayer extends MinimaxPlayer {
 
     @Override
     public Move getMyMove(GameModel model, int depth, TileColor tileColor) {
-        if (table.hasMove(model, depth)) {
-            return table.getMove(model, depth);
+        boolean isHit = table.hasMove(model, tileColor, depth);
+        countTableLookup(isHit);
+        if (isHit) {
+            return table.getMove(model, tileColor, depth);
         }
         // For now, always call the superclass (Minimax) method.
         Move move = super.getMyMove(model, depth, tileColor);
-        table.putMove(model, depth, move);
+        table.putMove(model, tileColor, depth, move);
         return move;
     }
 }
\ No newline at end of file
@@ -0,0 +1,223 @@
+package islands.model.student;
+
+import islands.model.GameModel;
+import islands.model.TileColor;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A Monte Carlo search tree that several threads can grow at the same
+ * time, each running playouts on its own copy of the root position. It
+ * works like {@link MonteCarloTree}, without locks:
+ * <ul>
+ *     <li>Nodes are claimed from a fixed-capacity pool with an atomic
+ *     counter. Once the pool is used up, playouts start at the deepest
+ *     node reached instead of adding one.</li>
+ *     <li>A thread claims the next untried move of a node by incrementing
+ *     its child count with compare-and-set, and then pushes the new child
+ *     onto the node's list of children with compare-and-set.</li>
+ *     <li>A visit is counted as soon as a thread moves into a node, and
+ *     the reward only when the playout is over. Until then the visit
+ *     counts as a loss (a "virtual loss"), which steers other threads
+ *     toward other branches.</li>
+ * </ul>
+ * A tree can be {@link #reset(GameModel, TileColor) reset} to search
+ * another position, so that its arrays needn't be allocated again.
+ */
+class ConcurrentMonteCarloTree {
+    private static final int ROOT = 0;
+    private static final int NO_NODE = -1;
+
+    private TileColor rootColor;
+    private int size;
+    private final int capacity;
+    private final AtomicInteger nodeCount = new AtomicInteger();
+
+    // A node's cell and next sibling are written before the node is
+    // published through firstChild, and never change afterward.
+    private final int[] cells;
+    private final int[] nextSibling;
+    private final AtomicIntegerArray firstChild;
+    private final AtomicIntegerArray childCount;
+    private final AtomicIntegerArray visits;
+    private final AtomicIntegerArray rewards;
+
+    /**
+     * Constructs a tree whose root is the current position of a model.
+     *
+     * @param model     the model, which is not changed or kept
+     * @param rootColor the color of the player to move at the root
+     * @param capacity  the maximum number of nodes
+     */
+    ConcurrentMonteCarloTree(GameModel model, TileColor rootColor, int capacity) {
+        this.rootColor = rootColor;
+        this.capacity = capacity;
+        size = model.getSize();
+        cells = new int[capacity];
+        nextSibling = new int[capacity];
+        firstChild = new AtomicIntegerArray(capacity);
+        childCount = new AtomicIntegerArray(capacity);
+        visits = new AtomicIntegerArray(capacity);
+        rewards = new AtomicIntegerArray(capacity);
+        addNode(NO_NODE);
+    }
+
+    /**
+     * Discards every node and makes the current position of a model the
+     * root. No other thread may use the tree while it is reset, and
+     * threads that use it afterward must see the reset through a
+     * happens-before edge, such as starting them afterward.
+     *
+     * @param model     the model, which is not changed or kept
+     * @param rootColor the color of the player to move at the root
+     */
+    void reset(GameModel model, TileColor rootColor) {
+        this.rootColor = rootColor;
+        size = model.getSize();
+        // Only nodes that were claimed have anything to clear. Cells,
+        // siblings and first children are set when a node is added.
+        int used = Math.min(nodeCount.get(), capacity);
+        for (int node = 0; node < used; node++) {
+            childCount.set(node, 0);
+            visits.set(node, 0);
+            rewards.set(node, 0);
+        }
+        nodeCount.set(0);
+        addNode(NO_NODE);
+    }
+
+    /**
+     * Gets the number of playouts started so far.
+     *
+     * @return the number of playouts
+     */
+    int getPlayoutCount() {
+        return visits.get(ROOT);
+    }
+
+    /**
+     * Gets the move from the root that has been tried the most.
+     *
+     * @return the index of the cell to play, row * size + column
+     * @throws IllegalStateException if no playouts have been run
+     */
+    int getBestCell() {
+        int best = NO_NODE;
+        int bestVisits = 0;
+        for (int child = firstChild.get(ROOT); child != NO_NODE; child = nextSibling[child]) {
+            if (best == NO_NODE || visits.get(child) > bestVisits) {
+                best = child;
+                bestVisits = visits.get(child);
+            }
+        }
+        if (best == NO_NODE) {
+            throw new IllegalStateException("No playouts have been run");
+        }
+        return cells[best];
+    }
+
+    /**
+     * Runs one playout.
+     *
+     * @param model  this thread's copy of the root position, which is
+     *               restored afterward
+     * @param random this thread's source of randomness
+     * @param path   this thread's buffer for the nodes of the playout,
+     *               with room for size * size + 1 nodes
+     */
+    void runPlayout(GameModel model, Random random, int[] path) {
+        int node = ROOT;
+        int length = 0;
+        path[length++] = node;
+        visits.incrementAndGet(node);
+        TileColor tileColor = rootColor;
+
+        while (!model.isGameOver()) {
+            int child = claimChild(node, model);
+            boolean isNew = child != NO_NODE;
+            if (!isNew) {
+                child = selectChild(node, model);
+                if (child == NO_NODE) {
+                    break;
+                }
+            }
+            node = child;
+            visits.incrementAndGet(node);
+            model.makePlay(cells[node] / size, cells[node] % size, tileColor);
+            path[length++] = node;
+            tileColor = tileColor.getOpposite();
+            if (isNew) {
+                break;
+            }
+        }
+
+        int plays = length - 1 + MonteCarloTree.playRandomly(model, tileColor, random);
+        int rootReward = MonteCarloTree.getReward(model, rootColor);
+        for (; plays > 0; plays--) {
+            model.undoPlay();
+        }
+
+        // Nodes at odd depths were reached by moves of the root's player.
+        for (int i = 1; i < length; i++) {
+            rewards.addAndGet(path[i], i % 2 == 1 ? rootReward : MonteCarloTree.WIN_REWARD - rootReward);
+        }
+    }
+
+    // Adds a child for the next untried move of the node, returning
+    // NO_NODE if every move has been tried or the pool is used up.
+    private int claimChild(int node, GameModel model) {
+        int moveCount = model.getEmptyCellCount();
+        while (true) {
+            int tried = childCount.get(node);
+            if (tried >= moveCount || nodeCount.get() >= capacity) {
+                return NO_NODE;
+            }
+            if (childCount.compareAndSet(node, tried, tried + 1)) {
+                int child = addNode(model.getEmptyCell(tried));
+                if (child == NO_NODE) {
+                    return NO_NODE;
+                }
+                int first;
+                do {
+                    first = firstChild.get(node);
+                    nextSibling[child] = first;
+                } while (!firstChild.compareAndSet(node, first, child));
+                return child;
+            }
+        }
+    }
+
+    // Chooses the child with the highest upper confidence bound, skipping
+    // children that no thread has moved into yet. Returns NO_NODE if there
+    // are none.
+    private int selectChild(int node, GameModel model) {
+        double logVisits = Math.log(visits.get(node));
+        int best = NO_NODE;
+        double bestBound = Double.NEGATIVE_INFINITY;
+        for (int child = firstChild.get(node); child != NO_NODE; child = nextSibling[child]) {
+            int childVisits = visits.get(child);
+            if (childVisits == 0) {
+                continue;
+            }
+            double bound = (double) rewards.get(child) / (MonteCarloTree.WIN_REWARD * childVisits)
+                    + MonteCarloTree.EXPLORATION * Math.sqrt(logVisits / childVisits);
+            if (bound > bestBound) {
+                best = child;
+                bestBound = bound;
+            }
+        }
+        return best;
+    }
+
+    private int addNode(int cell) {
+        int node = nodeCount.getAndIncrement();
+        if (node >= capacity) {
+            return NO_NODE;
+        }
+        cells[node] = cell;
+        firstChild.set(node, NO_NODE);
+        return node;
+    }
+}
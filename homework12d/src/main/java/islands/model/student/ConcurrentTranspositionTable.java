@@ -0,0 +1,49 @@
+package islands.model.student;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A {@link TranspositionTable} that can be shared by threads searching at
+ * the same time, as by {@link LazySmpSearch} and the parallel root search of
+ * {@link AlphaBetaPlayer}. It takes no locks. Each long is read and written
+ * atomically, in opaque mode, and a slot whose two longs were written by
+ * different threads fails the key check in {@link #probe(long)}, so a torn
+ * entry is treated as missing rather than returned. Stores can still be
+ * lost when two threads write the same bucket at once, which only costs
+ * the search some work.
+ */
+public class ConcurrentTranspositionTable extends TranspositionTable {
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] slots;
+
+    /**
+     * Constructs a table of {@link #DEFAULT_MEGABYTES} megabytes.
+     */
+    public ConcurrentTranspositionTable() {
+        this(DEFAULT_MEGABYTES);
+    }
+
+    /**
+     * Constructs a table taking up at most the specified number of
+     * megabytes, rounded down to a power of two.
+     *
+     * @param megabytes the size
+     * @throws IllegalArgumentException if megabytes is not positive
+     */
+    public ConcurrentTranspositionTable(int megabytes) {
+        super(getBucketCount(megabytes), false);
+        slots = new long[getBucketCount(megabytes) * LONGS_PER_BUCKET];
+    }
+
+    @Override
+    long read(int index) {
+        return (long) SLOTS.getOpaque(slots, index);
+    }
+
+    @Override
+    void write(int index, long value) {
+        SLOTS.setOpaque(slots, index, value);
+    }
+}
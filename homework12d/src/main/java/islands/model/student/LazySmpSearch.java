@@ -0,0 +1,82 @@
+package islands.model.student;
+
+import islands.model.GameModel;
+import islands.model.Move;
+import islands.model.TileColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A multi-threaded search using Lazy SMP. Helper threads run the same
+ * iterative-deepening alpha-beta search as the calling thread, each on its
+ * own copy of the model, and all of them share one
+ * {@link ConcurrentTranspositionTable}. The threads don't otherwise
+ * communicate: the helpers help by filling the table with results, exact
+ * values or bounds along with best moves, so that the other searches can
+ * cut off or narrow the window at positions a helper has already searched
+ * and try its best moves first. Half of the helpers start one ply
+ * deeper, so that the threads don't search the same nodes in lockstep.
+ *
+ * @see AlphaBetaPlayer#searchIteratively(GameModel, TileColor, int, Consumer)
+ */
+public class LazySmpSearch {
+    private final int helperCount;
+
+    /**
+     * Constructs a search with the specified number of helper threads.
+     *
+     * @param helperCount the number of helper threads, which may be 0
+     * @throws IllegalArgumentException if helperCount is negative
+     */
+    public LazySmpSearch(int helperCount) {
+        if (helperCount < 0) {
+            throw new IllegalArgumentException("The number of helpers cannot be negative");
+        }
+        this.helperCount = helperCount;
+    }
+
+    /**
+     * Searches to increasing depths on the calling thread, with the help of
+     * the helper threads. Only moves found by the calling thread are passed
+     * to the consumer. The helpers are interrupted when this returns or
+     * throws.
+     *
+     * @param model     the current game state, which is restored before
+     *                  this returns or throws
+     * @param tileColor the color of the player to move
+     * @param maxDepth  the maximum depth to search
+     * @param consumer  the consumer of the best move found at each depth
+     * @return the best move found at the greatest depth searched
+     * @throws SearchInterruptedException if the calling thread is
+     *                                    interrupted
+     */
+    public Move searchIteratively(GameModel model, TileColor tileColor, int maxDepth, Consumer<Move> consumer) {
+        TranspositionTable table = new ConcurrentTranspositionTable();
+        List<Thread> helpers = new ArrayList<>(helperCount);
+        try {
+            for (int i = 0; i < helperCount; i++) {
+                GameModel copy = model.deepCopy();
+                AlphaBetaPlayer helper = new AlphaBetaPlayer(table);
+                int minDepth = 1 + (i + 1) % 2;
+                Thread thread = new Thread(() -> {
+                    try {
+                        helper.searchIteratively(copy, tileColor, minDepth, maxDepth, move -> {
+                        });
+                    } catch (SearchInterruptedException e) {
+                        // The main search is over.
+                    }
+                }, "Lazy SMP helper " + i);
+                thread.setDaemon(true);
+                helpers.add(thread);
+                thread.start();
+            }
+            return new AlphaBetaPlayer(table).searchIteratively(model, tileColor, maxDepth, consumer);
+        } finally {
+            for (Thread helper : helpers) {
+                helper.interrupt();
+            }
+        }
+    }
+}
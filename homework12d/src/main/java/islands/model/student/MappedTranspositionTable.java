@@ -0,0 +1,106 @@
+package islands.model.student;
+
+import islands.model.ZobristKeys;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link TranspositionTable} kept in a memory-mapped file, so that its
+ * results survive from one game, or one run, to the next. Opening an
+ * existing file makes its entries available at once, without reading or
+ * converting them: pages are loaded by the operating system as they are
+ * probed.
+ * <p>
+ * The entries follow a header recording the format of the file, the
+ * number of buckets, and the {@link ZobristKeys#getFingerprint()
+ * fingerprint} of the keys. Entries are only valid for the same format,
+ * size and keys, so a file whose header doesn't match is cleared when it
+ * is opened.
+ */
+public class MappedTranspositionTable extends BufferTranspositionTable {
+    /**
+     * The number of bytes in the header before the entries.
+     */
+    public static final int HEADER_BYTES = 64;
+
+    private static final long MAGIC = 0x49534C414E445454L; // "ISLANDTT"
+    // Increase whenever the layout of the file or of its entries changes.
+    private static final long FORMAT_VERSION = 1;
+
+    /**
+     * Opens the table in the specified file, creating the file if it
+     * doesn't exist and clearing it if it was written with a different
+     * format, size, or {@link ZobristKeys}.
+     *
+     * @param file      the file
+     * @param megabytes the size of the table, which is rounded down to a
+     *                  power of two
+     * @throws IOException              if the file cannot be opened or
+     *                                  mapped
+     * @throws IllegalArgumentException if megabytes is not positive
+     */
+    public MappedTranspositionTable(Path file, int megabytes) throws IOException {
+        this(getBucketCount(megabytes), file);
+    }
+
+    private MappedTranspositionTable(int bucketCount, Path file) throws IOException {
+        super(bucketCount, map(file, bucketCount));
+    }
+
+    private static ByteBuffer[] map(Path file, int bucketCount) throws IOException {
+        ByteBuffer[] chunks = new ByteBuffer[getChunkCount(bucketCount)];
+        int chunkSize = getChunkSize(bucketCount);
+        // The mappings stay valid after the channel is closed.
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = getHeader(bucketCount);
+            if (!header.equals(readHeader(channel))) {
+                // Truncating discards the old entries, and mapping fills the
+                // file with zeros, which are empty slots.
+                channel.truncate(0);
+                channel.write(header, 0);
+            }
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        HEADER_BYTES + (long) i * chunkSize, chunkSize);
+            }
+        }
+        return chunks;
+    }
+
+    // Gets the header of a file with the specified number of buckets,
+    // padded with zeros.
+    private static ByteBuffer getHeader(int bucketCount) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putLong(MAGIC)
+                .putLong(FORMAT_VERSION)
+                .putLong(bucketCount)
+                .putLong(ZobristKeys.getFingerprint());
+        return header.clear();
+    }
+
+    // Reads the header of the file, which is shorter than HEADER_BYTES if
+    // the file is.
+    private static ByteBuffer readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        int count = 0;
+        while (header.hasRemaining() && count >= 0) {
+            count = channel.read(header, header.position());
+        }
+        return header.flip();
+    }
+
+    /**
+     * Writes any changed entries to the file.
+     */
+    public void flush() {
+        for (ByteBuffer chunk : getChunks()) {
+            ((MappedByteBuffer) chunk).force();
+        }
+    }
+}
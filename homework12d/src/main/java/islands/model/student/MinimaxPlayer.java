@@ -20,6 +20,7 @@ public class MinimaxPlayer extends SimulatedGameTreePlayer {
     @Override
     public RowColPair chooseNextMove(GameModel model, TileColor tileColor) {
         Move move = getMyMove(model, MAX_DEPTH, tileColor);
+        setDepthReached(MAX_DEPTH);
         return move.getPosition();
     }
 
@@ -28,21 +29,26 @@ public class MinimaxPlayer extends SimulatedGameTreePlayer {
         if (depth < 0) {
             throw new IllegalArgumentException();
         }
+        countNode();
         if (depth == 0 || model.isGameOver()) {
             // special case not including a position
             return new Move(getValue(model, tileColor));
         }
 
-        Move bestMove = null;
-        for (RowColPair position : getLegalPositions(model)) {
-            GameModel newModel = model.deepCopy();
-            newModel.makePlay(position.row(), position.column(), tileColor);
-            double childValue = getOpponentValue(newModel, depth - 1, tileColor.getOpposite());
-            if (bestMove == null || childValue > bestMove.value()) {
-                bestMove = new Move(position.row(), position.column(), childValue);
+        int size = model.getSize();
+        int bestCell = -1;
+        double bestValue = 0;
+        for (int i = 0; i < model.getEmptyCellCount(); i++) {
+            int cell = model.getEmptyCell(i);
+            model.makePlay(cell / size, cell % size, tileColor);
+            double childValue = getOpponentValue(model, depth - 1, tileColor.getOpposite());
+            model.undoPlay();
+            if (bestCell == -1 || childValue > bestValue) {
+                bestCell = cell;
+                bestValue = childValue;
             }
         }
-        return bestMove;
+        return new Move(bestCell / size, bestCell % size, bestValue);
     }
 
     @Override
@@ -50,15 +56,18 @@ public class MinimaxPlayer extends SimulatedGameTreePlayer {
         if (depth < 0) {
             throw new IllegalArgumentException();
         }
+        countNode();
         if (depth == 0 || model.isGameOver()) {
             return getValue(model, tileColor.getOpposite());
         }
 
+        int size = model.getSize();
         double minValue = Integer.MAX_VALUE;
-        for (RowColPair position : getLegalPositions(model)) {
-            GameModel childModel = model.deepCopy();
-            childModel.makePlay(position.row(), position.column(), tileColor);
-            Move childMove = getMyMove(childModel, depth - 1, tileColor.getOpposite());
+        for (int i = 0; i < model.getEmptyCellCount(); i++) {
+            int cell = model.getEmptyCell(i);
+            model.makePlay(cell / size, cell % size, tileColor);
+            Move childMove = getMyMove(model, depth - 1, tileColor.getOpposite());
+            model.undoPlay();
             if (childMove.value() < minValue) {
                 minValue = childMove.value();
             }
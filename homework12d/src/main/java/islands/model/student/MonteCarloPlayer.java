@@ -0,0 +1,78 @@
+package islands.model.student;
+
+import com.google.common.annotations.VisibleForTesting;
+import islands.model.GameModel;
+import islands.model.RowColPair;
+import islands.model.SimulatedPlayer;
+import islands.model.TileColor;
+
+import java.util.Random;
+
+/**
+ * A player that runs a fixed number of Monte Carlo playouts and chooses the
+ * move tried most often.
+ *
+ * @see MonteCarloTree
+ * @see TimedMonteCarloPlayer
+ */
+public class MonteCarloPlayer extends SimulatedPlayer {
+    /**
+     * The number of playouts used by the no-argument constructor.
+     */
+    public static final int DEFAULT_PLAYOUTS = 20_000;
+
+    private final int playouts;
+    private final Random random;
+
+    /**
+     * Constructs a player that runs {@link #DEFAULT_PLAYOUTS} playouts per
+     * move.
+     */
+    public MonteCarloPlayer() {
+        this(DEFAULT_PLAYOUTS);
+    }
+
+    /**
+     * Constructs a player that runs the specified number of playouts per
+     * move.
+     *
+     * @param playouts the number of playouts
+     * @throws IllegalArgumentException if playouts is not positive
+     */
+    public MonteCarloPlayer(int playouts) {
+        this(playouts, new Random());
+    }
+
+    /**
+     * Constructs a player that runs the specified number of playouts per
+     * move, choosing moves in playouts with the specified source of
+     * randomness, so that a seeded source makes its moves repeatable.
+     *
+     * @param playouts the number of playouts
+     * @param random   the source of randomness
+     * @throws IllegalArgumentException if playouts is not positive
+     */
+    @VisibleForTesting
+    public MonteCarloPlayer(int playouts, Random random) {
+        if (playouts <= 0) {
+            throw new IllegalArgumentException("The number of playouts must be positive");
+        }
+        this.playouts = playouts;
+        this.random = random;
+    }
+
+    @Override
+    public String getName() {
+        return "Monte Carlo";
+    }
+
+    @Override
+    public RowColPair chooseNextMove(GameModel model, TileColor tileColor) {
+        MonteCarloTree tree = new MonteCarloTree(model.deepCopy(), tileColor, random);
+        for (int i = 0; i < playouts; i++) {
+            tree.runPlayout();
+        }
+        int cell = tree.getBestCell();
+        return RowColPair.of(cell / model.getSize(), cell % model.getSize());
+    }
+}
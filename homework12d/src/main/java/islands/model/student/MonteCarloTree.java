@@ -0,0 +1,221 @@
+package islands.model.student;
+
+import islands.model.GameModel;
+import islands.model.TileColor;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A Monte Carlo search tree, grown one node per playout from a root
+ * position. Moves are chosen by UCT (upper confidence bounds applied to
+ * trees) down to a node with an untried move, which is added to the tree,
+ * and then randomly until the game is over.
+ * <p>
+ * Nodes are numbered from 0, the root, and stored in parallel arrays
+ * rather than as objects. The children of a node are linked through
+ * {@code nextSibling}. The k-th child created for a node is the move to
+ * {@link GameModel#getEmptyCell(int)} with index k, which is well defined
+ * because the order of empty cells is restored when plays are undone.
+ */
+class MonteCarloTree {
+    /**
+     * The weight given to exploring moves that have been tried less often,
+     * relative to exploiting those with the best results so far.
+     */
+    static final double EXPLORATION = Math.sqrt(2);
+
+    private static final int ROOT = 0;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_NODE = -1;
+
+    /**
+     * The reward for a win. Rewards are counted in half points, so that
+     * ties fit in an int.
+     */
+    static final int WIN_REWARD = 2;
+    private static final int TIE_REWARD = 1;
+
+    private final GameModel model;
+    private final TileColor rootColor;
+    private final Random random;
+    private final int size;
+
+    // The nodes on the path of the current playout.
+    private final int[] path;
+
+    private int nodeCount;
+    private int[] cells;       // the cell played to reach each node
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] childCount;  // the number of moves tried from each node
+    private int[] visits;
+    private int[] rewards;     // for the player who moved into the node
+
+    /**
+     * Constructs a tree whose root is the current position of the model.
+     * The model is changed during each playout and restored afterward.
+     *
+     * @param model     the model
+     * @param rootColor the color of the player to move at the root
+     * @param random    the source of randomness for playouts
+     */
+    MonteCarloTree(GameModel model, TileColor rootColor, Random random) {
+        this.model = model;
+        this.rootColor = rootColor;
+        this.random = random;
+        size = model.getSize();
+        path = new int[size * size + 1];
+        cells = new int[INITIAL_CAPACITY];
+        firstChild = new int[INITIAL_CAPACITY];
+        nextSibling = new int[INITIAL_CAPACITY];
+        childCount = new int[INITIAL_CAPACITY];
+        visits = new int[INITIAL_CAPACITY];
+        rewards = new int[INITIAL_CAPACITY];
+        addNode(NO_NODE);
+    }
+
+    /**
+     * Gets the number of playouts run so far.
+     *
+     * @return the number of playouts
+     */
+    int getPlayoutCount() {
+        return visits[ROOT];
+    }
+
+    /**
+     * Gets the move from the root that has been tried the most.
+     *
+     * @return the index of the cell to play, row * size + column
+     * @throws IllegalStateException if no playouts have been run
+     */
+    int getBestCell() {
+        int best = NO_NODE;
+        for (int child = firstChild[ROOT]; child != NO_NODE; child = nextSibling[child]) {
+            if (best == NO_NODE || visits[child] > visits[best]) {
+                best = child;
+            }
+        }
+        if (best == NO_NODE) {
+            throw new IllegalStateException("No playouts have been run");
+        }
+        return cells[best];
+    }
+
+    /**
+     * Runs one playout, adding a node to the tree unless the playout
+     * reaches the end of the game within the tree.
+     */
+    void runPlayout() {
+        int node = ROOT;
+        int length = 0;
+        path[length++] = node;
+        TileColor tileColor = rootColor;
+
+        // Descend by UCT until reaching a node with an untried move.
+        while (!model.isGameOver()) {
+            if (childCount[node] < model.getEmptyCellCount()) {
+                node = addChild(node, model.getEmptyCell(childCount[node]));
+                play(cells[node], tileColor);
+                path[length++] = node;
+                tileColor = tileColor.getOpposite();
+                break;
+            }
+            node = selectChild(node);
+            play(cells[node], tileColor);
+            path[length++] = node;
+            tileColor = tileColor.getOpposite();
+        }
+
+        int plays = length - 1 + playRandomly(model, tileColor, random);
+        int rootReward = getReward(model, rootColor);
+        for (; plays > 0; plays--) {
+            model.undoPlay();
+        }
+
+        // Nodes at odd depths were reached by moves of the root's player.
+        for (int i = 0; i < length; i++) {
+            visits[path[i]]++;
+            rewards[path[i]] += i % 2 == 1 ? rootReward : WIN_REWARD - rootReward;
+        }
+    }
+
+    private void play(int cell, TileColor tileColor) {
+        model.makePlay(cell / size, cell % size, tileColor);
+    }
+
+    /**
+     * Plays random moves, starting with the specified color, until the game
+     * is over.
+     *
+     * @param model     the model
+     * @param tileColor the color of the player to move
+     * @param random    the source of randomness
+     * @return the number of plays, which can be undone
+     */
+    static int playRandomly(GameModel model, TileColor tileColor, Random random) {
+        int size = model.getSize();
+        int plays = 0;
+        while (!model.isGameOver()) {
+            int cell = model.getEmptyCell(random.nextInt(model.getEmptyCellCount()));
+            model.makePlay(cell / size, cell % size, tileColor);
+            tileColor = tileColor.getOpposite();
+            plays++;
+        }
+        return plays;
+    }
+
+    /**
+     * Gets the reward for the specified player in a finished game.
+     *
+     * @param model     the model of the finished game
+     * @param tileColor the color of the player
+     * @return {@link #WIN_REWARD} for a win, half of it for a tie, or 0
+     */
+    static int getReward(GameModel model, TileColor tileColor) {
+        int difference = model.getScore(tileColor) - model.getScore(tileColor.getOpposite());
+        return difference > 0 ? WIN_REWARD : difference == 0 ? TIE_REWARD : 0;
+    }
+
+    // Chooses the child with the highest upper confidence bound. Every
+    // child has been visited at least once.
+    private int selectChild(int node) {
+        double logVisits = Math.log(visits[node]);
+        int best = NO_NODE;
+        double bestBound = Double.NEGATIVE_INFINITY;
+        for (int child = firstChild[node]; child != NO_NODE; child = nextSibling[child]) {
+            double bound = (double) rewards[child] / (WIN_REWARD * visits[child])
+                    + EXPLORATION * Math.sqrt(logVisits / visits[child]);
+            if (bound > bestBound) {
+                best = child;
+                bestBound = bound;
+            }
+        }
+        return best;
+    }
+
+    private int addChild(int parent, int cell) {
+        int child = addNode(cell);
+        nextSibling[child] = firstChild[parent];
+        firstChild[parent] = child;
+        childCount[parent]++;
+        return child;
+    }
+
+    private int addNode(int cell) {
+        if (nodeCount == cells.length) {
+            int capacity = 2 * nodeCount;
+            cells = Arrays.copyOf(cells, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            childCount = Arrays.copyOf(childCount, capacity);
+            visits = Arrays.copyOf(visits, capacity);
+            rewards = Arrays.copyOf(rewards, capacity);
+        }
+        cells[nodeCount] = cell;
+        firstChild[nodeCount] = NO_NODE;
+        nextSibling[nodeCount] = NO_NODE;
+        return nodeCount++;
+    }
+}
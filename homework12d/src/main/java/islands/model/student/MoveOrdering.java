@@ -0,0 +1,249 @@
+package islands.model.student;
+
+import islands.model.GameModel;
+import islands.model.TileColor;
+
+import java.util.Arrays;
+
+/**
+ * Decides the order in which a game tree search tries the moves from each
+ * node, so that moves likely to cause cutoffs come first. In order of
+ * priority, these are:
+ * <ol>
+ *     <li>up to two moves chosen by the search, such as the move from the
+ *     principal variation and the move from a transposition table,</li>
+ *     <li>the two most recent killer moves for the ply, which caused
+ *     cutoffs in sibling positions,</li>
+ *     <li>moves with high history scores, which grow by the square of the
+ *     remaining depth each time the move causes a cutoff, and</li>
+ *     <li>moves next to more tiles.</li>
+ * </ol>
+ * The heuristics (all but the first) can be turned off to compare node
+ * counts. Moves are picked one at a time, best first, so no time is spent
+ * ordering moves that a cutoff makes unnecessary.
+ */
+public class MoveOrdering {
+    private static final int KILLERS_PER_PLY = 2;
+
+    // Scores for moves chosen by the search and for killer moves, above
+    // any history score.
+    private static final long FIRST_SCORE = Long.MAX_VALUE;
+    private static final long SECOND_SCORE = Long.MAX_VALUE - 1;
+    private static final long KILLER_SCORE = Long.MAX_VALUE - 2;
+
+    // The minimum remaining depth at which history and adjacency are used.
+    // Just above the leaves, scoring every move costs more than a better
+    // order saves, since leaves are cheap to evaluate.
+    private static final int MIN_SCORING_DEPTH = 2;
+
+    // History scores are shifted left to make room for the number of
+    // adjacent tiles, which is at most 6.
+    private static final int ADJACENT_BITS = 3;
+
+    // The offsets of a cell's neighbors: (row, col +/- 1), (row +/- 1, col),
+    // (row + 1, col + 1), and (row - 1, col - 1).
+    private static final int[] NEIGHBOR_ROWS = {0, 0, 1, -1, 1, -1};
+    private static final int[] NEIGHBOR_COLS = {1, -1, 0, 0, 1, -1};
+
+    private final int size;
+    private boolean heuristicsEnabled = true;
+    private boolean adjacencyEnabled = true;
+    private int[][] moves;
+    private long[][] scores;
+    private int[] counts;
+    private int[][] killers;
+    // Indexed by TileColor ordinal, then cell.
+    private final long[][] history;
+
+    /**
+     * Constructs an ordering for boards of the specified size.
+     *
+     * @param size the number of rows (and the number of columns) on the board
+     */
+    public MoveOrdering(int size) {
+        this.size = size;
+        moves = new int[0][];
+        scores = new long[0][];
+        counts = new int[0];
+        killers = new int[0][];
+        history = new long[TileColor.values().length][size * size];
+    }
+
+    /**
+     * Turns the killer, history, and adjacency heuristics on or off. They
+     * are on by default.
+     *
+     * @param enabled true to use the heuristics, false to order moves only
+     *                by the moves chosen by the search
+     */
+    public void setHeuristicsEnabled(boolean enabled) {
+        heuristicsEnabled = enabled;
+    }
+
+    /**
+     * Turns the adjacency heuristic on or off, leaving the others as they
+     * are. It is on by default.
+     *
+     * @param enabled true to try moves next to more tiles first among
+     *                moves with equal history scores, false not to
+     */
+    public void setAdjacencyEnabled(boolean enabled) {
+        adjacencyEnabled = enabled;
+    }
+
+    /**
+     * Returns whether moves are scored at the specified remaining depth, by
+     * history and adjacency. Below it, moves not chosen by the search or
+     * killers are tried in the order of the model's empty cells.
+     *
+     * @param depth the remaining depth
+     * @return true if moves are scored, false otherwise
+     */
+    public boolean isScoring(int depth) {
+        return heuristicsEnabled && depth >= MIN_SCORING_DEPTH;
+    }
+
+    /**
+     * Prepares for a search that reaches the specified ply, and ages the
+     * history scores, so that those from earlier searches count for less.
+     *
+     * @param maxPly the greatest ply the search will reach
+     */
+    public void startSearch(int maxPly) {
+        if (moves.length <= maxPly) {
+            moves = new int[maxPly + 1][size * size];
+            scores = new long[maxPly + 1][size * size];
+            counts = new int[maxPly + 1];
+            int[][] oldKillers = killers;
+            killers = new int[maxPly + 1][KILLERS_PER_PLY];
+            for (int ply = 0; ply <= maxPly; ply++) {
+                if (ply < oldKillers.length) {
+                    killers[ply] = oldKillers[ply];
+                } else {
+                    Arrays.fill(killers[ply], -1);
+                }
+            }
+        }
+        for (long[] colorHistory : history) {
+            for (int cell = 0; cell < colorHistory.length; cell++) {
+                colorHistory[cell] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Gets the moves from the current position of the model ready to be
+     * picked with {@link #getMove(int, int)}.
+     *
+     * @param model      the model
+     * @param ply        the number of moves between the root and the model
+     * @param depth      the remaining depth of the search
+     * @param tileColor  the color of the player to move
+     * @param firstCell  the cell to try first, or -1 if none
+     * @param secondCell the cell to try next, or -1 if none
+     * @return the number of moves
+     */
+    public int orderMoves(GameModel model, int ply, int depth, TileColor tileColor, int firstCell, int secondCell) {
+        int[] plyMoves = moves[ply];
+        long[] plyScores = scores[ply];
+        int[] plyKillers = killers[ply];
+        long[] colorHistory = history[tileColor.ordinal()];
+        boolean isScoring = isScoring(depth);
+        int count = model.getEmptyCellCount();
+        counts[ply] = count;
+        for (int i = 0; i < count; i++) {
+            int cell = model.getEmptyCell(i);
+            plyMoves[i] = cell;
+            if (cell == firstCell) {
+                plyScores[i] = FIRST_SCORE;
+            } else if (cell == secondCell) {
+                plyScores[i] = SECOND_SCORE;
+            } else if (!heuristicsEnabled) {
+                plyScores[i] = 0;
+            } else if (cell == plyKillers[0]) {
+                plyScores[i] = KILLER_SCORE;
+            } else if (cell == plyKillers[1]) {
+                plyScores[i] = KILLER_SCORE - 1;
+            } else if (isScoring) {
+                plyScores[i] = colorHistory[cell] << ADJACENT_BITS
+                        | (adjacencyEnabled ? countAdjacentTiles(model, cell) : 0);
+            } else {
+                plyScores[i] = 0;
+            }
+        }
+        return count;
+    }
+
+    private int countAdjacentTiles(GameModel model, int cell) {
+        int row = cell / size;
+        int col = cell % size;
+        int count = 0;
+        for (int i = 0; i < NEIGHBOR_ROWS.length; i++) {
+            int r = row + NEIGHBOR_ROWS[i];
+            int c = col + NEIGHBOR_COLS[i];
+            if (r >= 0 && r < size && c >= 0 && c < size && !model.canPlay(r, c)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the move to try with the specified index. Moves must be gotten
+     * in order of index, starting at 0, after calling {@link
+     * #orderMoves(GameModel, int, int, TileColor, int, int)}.
+     *
+     * @param ply   the ply passed to orderMoves()
+     * @param index the index
+     * @return the cell to play
+     */
+    public int getMove(int ply, int index) {
+        int[] plyMoves = moves[ply];
+        long[] plyScores = scores[ply];
+        int count = counts[ply];
+        int best = index;
+        for (int i = index + 1; i < count && plyScores[best] != FIRST_SCORE; i++) {
+            if (plyScores[i] > plyScores[best]) {
+                best = i;
+            }
+        }
+        int cell = plyMoves[best];
+        plyMoves[best] = plyMoves[index];
+        plyScores[best] = plyScores[index];
+        plyMoves[index] = cell;
+        plyScores[index] = FIRST_SCORE;
+        return cell;
+    }
+
+    /**
+     * Records that a move caused a cutoff.
+     *
+     * @param ply       the ply of the position from which the move was made
+     * @param depth     the remaining depth at that position
+     * @param index     the index of the move
+     * @param cell      the cell played
+     * @param tileColor the color of the player who made the move
+     */
+    public void recordCutoff(int ply, int depth, int index, int cell, TileColor tileColor) {
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != cell) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = cell;
+        }
+        recordBestMove(depth, cell, tileColor);
+    }
+
+    /**
+     * Records that a move was the best one from a position, raising its
+     * history score without making it a killer move. Searches that never
+     * cut off, such as those of {@link RandomMaxPlayer}, use this instead
+     * of {@link #recordCutoff(int, int, int, int, TileColor)}.
+     *
+     * @param depth     the remaining depth at the position
+     * @param cell      the cell played
+     * @param tileColor the color of the player who made the move
+     */
+    public void recordBestMove(int depth, int cell, TileColor tileColor) {
+        history[tileColor.ordinal()][cell] += (long) depth * depth;
+    }
+}
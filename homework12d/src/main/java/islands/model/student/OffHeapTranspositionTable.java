@@ -0,0 +1,83 @@
+package islands.model.student;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link TranspositionTable} kept in direct byte buffers outside the Java
+ * heap, so that tables of several gigabytes take no heap space and add
+ * nothing to garbage collection pauses. Like {@link
+ * ConcurrentTranspositionTable}, it can be shared between threads.
+ * <p>
+ * The memory is limited by the JVM option {@code -XX:MaxDirectMemorySize},
+ * which defaults to the maximum heap size. It is freed by {@link #close()}
+ * rather than waiting for the table to be collected. A closed table must
+ * not be used, even by other threads.
+ */
+public class OffHeapTranspositionTable extends BufferTranspositionTable implements AutoCloseable {
+    private static final int MEGABYTES_PER_GIGABYTE = 1024;
+
+    /**
+     * Constructs a table taking up at most the specified number of
+     * megabytes, rounded down to a power of two.
+     *
+     * @param megabytes the size
+     * @throws IllegalArgumentException if megabytes is not positive
+     * @throws OutOfMemoryError         if there isn't enough direct memory
+     */
+    public OffHeapTranspositionTable(int megabytes) {
+        super(getBucketCount(megabytes), allocate(getBucketCount(megabytes)));
+    }
+
+    /**
+     * Constructs a table taking up at most the specified number of
+     * gigabytes.
+     *
+     * @param gigabytes the size, at most 8
+     * @return the table
+     * @throws IllegalArgumentException if gigabytes is not positive
+     * @throws OutOfMemoryError         if there isn't enough direct memory
+     */
+    public static OffHeapTranspositionTable ofGigabytes(int gigabytes) {
+        return new OffHeapTranspositionTable(Math.multiplyExact(gigabytes, MEGABYTES_PER_GIGABYTE));
+    }
+
+    private static ByteBuffer[] allocate(int bucketCount) {
+        ByteBuffer[] chunks = new ByteBuffer[getChunkCount(bucketCount)];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = ByteBuffer.allocateDirect(getChunkSize(bucketCount));
+        }
+        return chunks;
+    }
+
+    /**
+     * Frees the memory of the table. Calling this again does nothing.
+     */
+    @Override
+    public void close() {
+        ByteBuffer[] chunks = getChunks();
+        for (int i = 0; i < chunks.length; i++) {
+            ByteBuffer chunk = chunks[i];
+            if (chunk != null) {
+                // Later reads and writes fail instead of touching freed
+                // memory.
+                chunks[i] = null;
+                free(chunk);
+            }
+        }
+    }
+
+    // Frees a direct buffer's memory at once. Java 17 has no public way to
+    // do this, so this uses sun.misc.Unsafe (in the jdk.unsupported module)
+    // if it is available and otherwise leaves the buffer to be collected.
+    private static void free(ByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(field.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // The memory is freed when the buffer is collected.
+        }
+    }
+}
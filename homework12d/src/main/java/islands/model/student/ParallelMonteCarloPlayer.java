@@ -0,0 +1,133 @@
+package islands.model.student;
+
+import islands.model.GameModel;
+import islands.model.RowColPair;
+import islands.model.TileColor;
+import islands.model.TimeLimitedSimulatedPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A player that runs Monte Carlo playouts on several threads until its time
+ * runs out, all of them growing one shared tree. The tree is reset and
+ * reused from one move to the next, rather than allocating its arrays for
+ * every move.
+ *
+ * @see ConcurrentMonteCarloTree
+ * @see TimedMonteCarloPlayer
+ */
+public class ParallelMonteCarloPlayer extends TimeLimitedSimulatedPlayer {
+    // How many playouts to run between reports of the best move.
+    private static final int PLAYOUTS_PER_REPORT = 256;
+
+    // The maximum number of nodes in the tree, about 24 bytes each.
+    private static final int TREE_CAPACITY = 1 << 20;
+
+    private final int threadCount;
+    private volatile int lastPlayoutCount;
+    // The tree of the latest move, once its helpers have stopped. Null
+    // while a move is using it, so that a move whose thread is still
+    // running after its time is up doesn't share its tree with the next.
+    private final AtomicReference<ConcurrentMonteCarloTree> spareTree = new AtomicReference<>();
+
+    /**
+     * Constructs a player that uses one thread per available core.
+     */
+    public ParallelMonteCarloPlayer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a player that uses the specified number of threads.
+     *
+     * @param threadCount the number of threads
+     * @throws IllegalArgumentException if threadCount is less than 1
+     */
+    public ParallelMonteCarloPlayer(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("There must be at least one thread");
+        }
+        this.threadCount = threadCount;
+    }
+
+    @Override
+    public String getName() {
+        return "Monte Carlo (parallel)";
+    }
+
+    /**
+     * Gets the number of playouts run for the most recent move, by all
+     * threads together.
+     *
+     * @return the number of playouts
+     */
+    public int getLastPlayoutCount() {
+        return lastPlayoutCount;
+    }
+
+    @Override
+    public void makeMove(GameModel model, TileColor tileColor, Listener listener) {
+        int size = model.getSize();
+        ConcurrentMonteCarloTree tree = takeTree(model, tileColor);
+        List<Thread> helpers = new ArrayList<>(threadCount - 1);
+        try {
+            for (int i = 1; i < threadCount; i++) {
+                GameModel copy = model.deepCopy();
+                Thread thread = new Thread(() -> runPlayouts(tree, copy), "Monte Carlo helper " + i);
+                thread.setDaemon(true);
+                helpers.add(thread);
+                thread.start();
+            }
+            int[] path = new int[size * size + 1];
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int playouts = 1; !Thread.interrupted(); playouts++) {
+                tree.runPlayout(model, random, path);
+                if (playouts % PLAYOUTS_PER_REPORT == 1) {
+                    int cell = tree.getBestCell();
+                    listener.receiveMove(RowColPair.of(cell / size, cell % size));
+                }
+                lastPlayoutCount = tree.getPlayoutCount();
+            }
+        } finally {
+            for (Thread helper : helpers) {
+                helper.interrupt();
+            }
+            releaseTree(tree, helpers);
+        }
+    }
+
+    // Gets a tree whose root is the current position, reusing the spare
+    // tree if there is one.
+    private ConcurrentMonteCarloTree takeTree(GameModel model, TileColor tileColor) {
+        ConcurrentMonteCarloTree tree = spareTree.getAndSet(null);
+        if (tree == null) {
+            return new ConcurrentMonteCarloTree(model, tileColor, TREE_CAPACITY);
+        }
+        tree.reset(model, tileColor);
+        return tree;
+    }
+
+    // Keeps the tree for the next move once the helpers have stopped.
+    private void releaseTree(ConcurrentMonteCarloTree tree, List<Thread> helpers) {
+        try {
+            for (Thread helper : helpers) {
+                helper.join();
+            }
+            spareTree.set(tree);
+        } catch (InterruptedException e) {
+            // A helper may still be using the tree, so it isn't reused.
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void runPlayouts(ConcurrentMonteCarloTree tree, GameModel model) {
+        int[] path = new int[model.getSize() * model.getSize() + 1];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (!Thread.interrupted()) {
+            tree.runPlayout(model, random, path);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package islands.model.student;
+
+import islands.model.GameModel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * A {@link CachingMinimaxPlayer} whose cache is a {@link
+ * MappedTranspositionTable}, so that moves found in earlier games, such as
+ * the openings, are reused at once. The table is opened when the player is
+ * constructed and flushed to disk when the game ends. One file serves
+ * every board size, since hash keys depend on the size.
+ */
+public class PersistentCachingMinimaxPlayer extends CachingMinimaxPlayer {
+    /**
+     * The file holding the table, in the temporary directory.
+     */
+    public static final Path DEFAULT_FILE =
+            Path.of(System.getProperty("java.io.tmpdir"), "islands-caching-minimax.tt");
+
+    /**
+     * The size of the table in megabytes.
+     */
+    public static final int DEFAULT_MEGABYTES = 64;
+
+    private final MappedTranspositionTable table;
+
+    /**
+     * Constructs a player using the table in {@link #DEFAULT_FILE}.
+     *
+     * @throws UncheckedIOException if the file cannot be opened
+     */
+    public PersistentCachingMinimaxPlayer() {
+        this(open(DEFAULT_FILE));
+    }
+
+    /**
+     * Constructs a player using the specified table.
+     *
+     * @param table the table
+     */
+    public PersistentCachingMinimaxPlayer(MappedTranspositionTable table) {
+        super(table);
+        this.table = table;
+    }
+
+    private static MappedTranspositionTable open(Path file) {
+        try {
+            return new MappedTranspositionTable(file, DEFAULT_MEGABYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Persistent Caching Minimax";
+    }
+
+    @Override
+    public void endGame(GameModel model) {
+        table.flush();
+    }
+}
@@ -0,0 +1,46 @@
+package islands.model.student;
+
+import islands.model.GameModel;
+import islands.model.TileColor;
+
+import java.util.function.Consumer;
+
+/**
+ * A player using principal variation search (also known as NegaScout), a
+ * refinement of alpha-beta pruning. The first move from each position is
+ * searched with the full window. Each later move is first searched with a
+ * null window, which only shows whether it is better than the best move so
+ * far, and searched again with the full window only if it is.
+ * <p>
+ * When searching iteratively (see {@link #searchIteratively(GameModel,
+ * TileColor, int, Consumer)}), each depth after the first starts with an
+ * aspiration window around the value found at the previous depth, which is
+ * opened up if the value falls outside it.
+ */
+public class PrincipalVariationPlayer extends AlphaBetaPlayer {
+    /**
+     * Constructs a player with its own transposition table, which is a
+     * {@link ConcurrentTranspositionTable} so that it can be shared by the
+     * threads of a parallel search.
+     */
+    public PrincipalVariationPlayer() {
+        this(new ConcurrentTranspositionTable());
+    }
+
+    /**
+     * Constructs a player that records the best moves it finds in the
+     * specified transposition table and tries the moves found there first.
+     * A table shared with players searching on other threads, or used by
+     * a parallel search, must be a {@link ConcurrentTranspositionTable}.
+     *
+     * @param table the table
+     */
+    public PrincipalVariationPlayer(TranspositionTable table) {
+        super(table, true);
+    }
+
+    @Override
+    public String getName() {
+        return "Principal Variation";
+    }
+}
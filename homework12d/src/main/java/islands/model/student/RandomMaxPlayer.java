@@ -1,33 +1,192 @@
 package islands.model.student;
 
 import islands.model.GameModel;
+import islands.model.Move;
 import islands.model.TileColor;
 
 /**
  * A player that chooses the highest-scoring move based on the assumption
  * that the opponent will always choose randomly.
+ * <p>
+ * By default, the search prunes the opponent's (chance) nodes with Star1:
+ * since {@link #getValue(GameModel, TileColor)} is never more than
+ * size<sup>2</sup>, once the moves searched so far show that the average
+ * over all of them cannot beat a move already found, the rest are
+ * skipped. The moves chosen and their values are exactly those of the full
+ * search. (Star2, which probes children for lower bounds, would only help
+ * with upper cutoffs, which this tree of maximizing and chance nodes never
+ * has.)
+ * <p>
+ * The earlier a good move is found, the more of the other moves' chance
+ * nodes are cut off, so the pruned search tries its own moves in the
+ * order of their history scores in a {@link MoveOrdering}, which are
+ * raised by the best moves. (Trying moves next to more tiles first, as
+ * {@link AlphaBetaPlayer} does, made for fewer cutoffs here.) Ties still
+ * go to the move the full search would choose.
  */
 public class RandomMaxPlayer extends MinimaxPlayer {
+    private boolean isPruningEnabled = true;
+    // Only used when pruning.
+    private MoveOrdering ordering;
+    // The index of each cell among the model's empty cells at each ply,
+    // which decides ties as in the full search.
+    private int[][] emptyIndices = new int[0][];
+
     @Override
     public String getName() {
         return "RandomMax";
     }
 
+    /**
+     * Sets whether the search prunes chance nodes. Pruning never changes
+     * the moves chosen or their values.
+     *
+     * @param enabled true to prune, false to average over every move
+     */
+    public void setPruningEnabled(boolean enabled) {
+        isPruningEnabled = enabled;
+    }
+
+    @Override
+    public Move getMyMove(GameModel model, int depth, TileColor tileColor) {
+        if (depth < 0) {
+            throw new IllegalArgumentException();
+        }
+        if (isPruningEnabled) {
+            prepare(model.getSize(), depth);
+            return getMyMove(model, 0, depth, Double.NEGATIVE_INFINITY, tileColor);
+        }
+        return super.getMyMove(model, depth, tileColor);
+    }
+
     @Override
     public double getOpponentValue(GameModel model, int depth, TileColor tileColor) {
         if (depth < 0) {
             throw new IllegalArgumentException();
         }
+        if (isPruningEnabled) {
+            prepare(model.getSize(), depth);
+            return getOpponentValue(model, 0, depth, Double.NEGATIVE_INFINITY, tileColor);
+        }
+        countNode();
         if (depth == 0 || model.isGameOver()) {
             return getValue(model, tileColor);
         }
+        int size = model.getSize();
+        int numChildren = model.getEmptyCellCount();
         double sumValues = 0;
-        for (islands.model.RowColPair position : getLegalPositions(model)) {
-            GameModel childModel = model.deepCopy();
-            childModel.makePlay(position.row(), position.column(), tileColor);
-            islands.model.Move childMove = getMyMove(childModel, depth - 1, tileColor.getOpposite());
+        for (int i = 0; i < numChildren; i++) {
+            int cell = model.getEmptyCell(i);
+            model.makePlay(cell / size, cell % size, tileColor);
+            Move childMove = getMyMove(model, depth - 1, tileColor.getOpposite());
+            model.undoPlay();
             sumValues += childMove.value();
         }
-        return sumValues / getLegalPositions(model).size();
+        return sumValues / numChildren;
+    }
+
+    // Makes sure the buffers are big enough for a search to this depth.
+    private void prepare(int size, int depth) {
+        if (ordering == null) {
+            ordering = new MoveOrdering(size);
+            ordering.setAdjacencyEnabled(false);
+        }
+        ordering.startSearch(depth);
+        if (emptyIndices.length <= depth) {
+            emptyIndices = new int[depth + 1][size * size];
+        }
+    }
+
+    // Searches like the ordinary getMyMove() method, except that moves
+    // worth no more than alpha may have their values overestimated. If the
+    // value returned is greater than alpha, it is exact; otherwise the true
+    // value is at most the value returned.
+    private Move getMyMove(GameModel model, int ply, int depth, double alpha, TileColor tileColor) {
+        countNode();
+        if (depth == 0 || model.isGameOver()) {
+            return new Move(getValue(model, tileColor));
+        }
+        int size = model.getSize();
+        int[] indices = emptyIndices[ply];
+        int count = model.getEmptyCellCount();
+        for (int i = 0; i < count; i++) {
+            indices[model.getEmptyCell(i)] = i;
+        }
+        // Unscored moves would come out in their original order, so they
+        // needn't be picked from the ordering.
+        boolean isOrdered = ordering.isScoring(depth);
+        if (isOrdered) {
+            ordering.orderMoves(model, ply, depth, tileColor, -1, -1);
+        }
+        int bestCell = -1;
+        double bestValue = 0;
+        for (int i = 0; i < count; i++) {
+            int cell = isOrdered ? ordering.getMove(ply, i) : model.getEmptyCell(i);
+            // The full search chooses the first of the best moves in the
+            // order of the empty cells, so a move before the best so far
+            // wins a tie. A move that doesn't beat the best so far isn't
+            // chosen, so its value needn't be exact.
+            boolean winsTie = bestCell != -1 && indices[cell] < indices[bestCell];
+            double childAlpha = bestCell == -1 ? alpha
+                    : Math.max(alpha, winsTie ? Math.nextDown(bestValue) : bestValue);
+            model.makePlay(cell / size, cell % size, tileColor);
+            double childValue = getOpponentValue(model, ply + 1, depth - 1, childAlpha, tileColor.getOpposite());
+            model.undoPlay();
+            if (bestCell == -1 || childValue > bestValue || winsTie && childValue == bestValue) {
+                bestCell = cell;
+                bestValue = childValue;
+            }
+        }
+        if (bestValue > alpha) {
+            ordering.recordBestMove(depth, bestCell, tileColor);
+        }
+        return new Move(bestCell / size, bestCell % size, bestValue);
+    }
+
+    // Searches like the ordinary getOpponentValue() method, with the same
+    // guarantee about alpha as the method above.
+    private double getOpponentValue(GameModel model, int ply, int depth, double alpha, TileColor tileColor) {
+        countNode();
+        if (depth == 0 || model.isGameOver()) {
+            return getValue(model, tileColor);
+        }
+        int size = model.getSize();
+        int maxValue = size * size;
+        int numChildren = model.getEmptyCellCount();
+        double sumValues = 0;
+        for (int i = 0; i < numChildren; i++) {
+            int remaining = numChildren - i - 1;
+            // If this child is worth at most childAlpha, the average is at
+            // most alpha even if the remaining children have the maximum
+            // value. This is only an estimate, since it's rounded
+            // differently from the average.
+            double childAlpha = alpha * numChildren - sumValues - (double) remaining * maxValue;
+            int cell = model.getEmptyCell(i);
+            model.makePlay(cell / size, cell % size, tileColor);
+            double childValue = getMyMove(model, ply + 1, depth - 1, childAlpha, tileColor.getOpposite()).value();
+            if (childValue <= childAlpha) {
+                double upperBound = getAverage(sumValues + childValue, remaining, maxValue, numChildren);
+                if (upperBound <= alpha) {
+                    model.undoPlay();
+                    return upperBound;
+                }
+                // The estimate was off, so the exact value is needed.
+                childValue = getMyMove(model, ply + 1, depth - 1, Double.NEGATIVE_INFINITY,
+                        tileColor.getOpposite()).value();
+            }
+            model.undoPlay();
+            sumValues += childValue;
+        }
+        return sumValues / numChildren;
+    }
+
+    // Gets the average the ordinary search would compute if the remaining
+    // children all had the specified value, adding in the same order, so
+    // that it is an exact bound on the average actually computed.
+    private static double getAverage(double sumValues, int remaining, double value, int numChildren) {
+        for (int i = 0; i < remaining; i++) {
+            sumValues += value;
+        }
+        return sumValues / numChildren;
     }
 }
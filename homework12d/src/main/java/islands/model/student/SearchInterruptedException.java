@@ -0,0 +1,17 @@
+package islands.model.student;
+
+/**
+ * Thrown by a search that noticed that its thread was interrupted, which
+ * is how a {@link islands.model.TimeLimitedSimulatedPlayer} is told that
+ * its time is up.
+ */
+public class SearchInterruptedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs an exception for an interrupted search.
+     */
+    public SearchInterruptedException() {
+        super("Search was interrupted");
+    }
+}
@@ -0,0 +1,38 @@
+package islands.model.student;
+
+import islands.model.GameModel;
+import islands.model.RowColPair;
+import islands.model.TileColor;
+import islands.model.TimeLimitedSimulatedPlayer;
+
+import java.util.Random;
+
+/**
+ * A player that runs Monte Carlo playouts until its time runs out,
+ * reporting the move tried most often every so often.
+ *
+ * @see MonteCarloTree
+ * @see MonteCarloPlayer
+ */
+public class TimedMonteCarloPlayer extends TimeLimitedSimulatedPlayer {
+    // How many playouts to run between reports of the best move.
+    private static final int PLAYOUTS_PER_REPORT = 256;
+
+    @Override
+    public String getName() {
+        return "Monte Carlo (timed)";
+    }
+
+    @Override
+    public void makeMove(GameModel model, TileColor tileColor, Listener listener) {
+        int size = model.getSize();
+        MonteCarloTree tree = new MonteCarloTree(model, tileColor, new Random());
+        while (!Thread.interrupted()) {
+            tree.runPlayout();
+            if (tree.getPlayoutCount() % PLAYOUTS_PER_REPORT == 1) {
+                int cell = tree.getBestCell();
+                listener.receiveMove(RowColPair.of(cell / size, cell % size));
+            }
+        }
+    }
+}
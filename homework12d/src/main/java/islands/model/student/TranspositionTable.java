@@ -2,49 +2,363 @@ package islands.model.student;
 
 import islands.model.GameModel;
 import islands.model.Move;
+import islands.model.Symmetry;
 import islands.model.TileColor;
 
-import java.util.*;
+import java.util.NoSuchElementException;
 
 /**
- * A table for storing and retrieving the results of calls to {@link
+ * A fixed-size table of search results, such as those of {@link
+ * AlphaBetaPlayer}, keyed by {@link GameModel#getHashKey()}. Each result
+ * records whether its value is exact or only a bound, along with the best
+ * move found. The table also stores the results of calls to {@link
  * islands.model.SimulatedGameTreePlayer#getMyMove(GameModel, int, TileColor)}
+ * for {@link CachingMinimaxPlayer}, as exact results.
+ * <p>
+ * Searches store each result under the key of the canonical position
+ * equivalent to the one searched (see {@link Symmetry#getCanonical(GameModel,
+ * TileColor)}), with its best move transformed to match, so that one entry
+ * serves every equivalent position.
+ * <p>
+ * Results are packed into a power-of-two array of longs, so the table
+ * takes the same memory however many positions are stored, and probing
+ * doesn't allocate. Each slot is a pair of longs, the entry and the key
+ * XORed with the entry, so that a slot half-written by another thread
+ * fails verification instead of giving a wrong result. Slots are grouped
+ * in buckets of two. A new result goes in the first slot if it comes from
+ * a search at least as deep as the one already there, and in the second
+ * slot otherwise.
+ * <p>
+ * Values are stored as floats, which hold search values (whole numbers)
+ * exactly.
  */
 public class TranspositionTable {
-    private record Value(int depth, Move move) {
+    /**
+     * The size of tables made by the no-argument constructor.
+     */
+    public static final int DEFAULT_MEGABYTES = 16;
+
+    /**
+     * The value returned by {@link #probe(long)} when there is no entry.
+     */
+    public static final long NO_ENTRY = 0;
+
+    private static final int BYTES_PER_SLOT = 2 * Long.BYTES;
+    private static final int SLOTS_PER_BUCKET = 2;
+    static final int LONGS_PER_BUCKET = 2 * SLOTS_PER_BUCKET;
+
+    // The layout of an entry, from the lowest bits: the value's float bits,
+    // the cell plus 1 (so that 0 means none), the bound, the depth, and a
+    // bit that is set in every entry, so that no entry is NO_ENTRY.
+    private static final int CELL_SHIFT = 32;
+    private static final int BOUND_SHIFT = 48;
+    private static final int DEPTH_SHIFT = 50;
+    private static final long CELL_MASK = 0xFFFF;
+    private static final long BOUND_MASK = 0x3;
+    private static final int MAX_DEPTH = 0xFF;
+    private static final long PRESENT = 1L << 63;
+
+    private static final Bound[] BOUNDS = Bound.values();
+
+    /**
+     * How the value of an entry relates to the true value of the position
+     * to the depth searched.
+     */
+    public enum Bound {
+        /**
+         * The value is the true value.
+         */
+        EXACT,
+
+        /**
+         * The true value is at least the value, because the search was cut
+         * off after finding a move that good.
+         */
+        LOWER,
+
+        /**
+         * The true value is at most the value, because no move was better
+         * than a value already guaranteed elsewhere.
+         */
+        UPPER
+    }
+
+    /**
+     * The result of a search of a position, as unpacked by {@link
+     * #getEntry(long)}.
+     *
+     * @param depth the depth searched
+     * @param value the value found, from the point of view of the player to
+     *              move
+     * @param bound how the value relates to the true value
+     * @param cell  the best move found, as the index of the cell to play
+     *              (row * size + column), or -1 if none
+     */
+    public record Entry(int depth, double value, Bound bound, int cell) {
+    }
+
+    // Pairs of (key ^ entry, entry).
+    private final long[] slots;
+    private final int bucketMask;
+
+    /**
+     * Constructs a table of {@link #DEFAULT_MEGABYTES} megabytes.
+     */
+    public TranspositionTable() {
+        this(DEFAULT_MEGABYTES);
+    }
+
+    /**
+     * Constructs a table taking up at most the specified number of
+     * megabytes, rounded down to a power of two. Sizes above what an array
+     * can index are capped (see {@link #getCapacityFor(int)}).
+     *
+     * @param megabytes the size
+     * @throws IllegalArgumentException if megabytes is not positive
+     */
+    public TranspositionTable(int megabytes) {
+        this(getBucketCount(megabytes), true);
+    }
+
+    // Enables subclasses to keep the longs elsewhere, by overriding read()
+    // and write() and passing false for isOnHeap.
+    TranspositionTable(int bucketCount, boolean isOnHeap) {
+        bucketMask = bucketCount - 1;
+        slots = isOnHeap ? new long[bucketCount * LONGS_PER_BUCKET] : null;
+    }
+
+    /**
+     * Gets the number of buckets in a table of the specified size.
+     *
+     * @param megabytes the size
+     * @return the number of buckets, a power of two
+     * @throws IllegalArgumentException if megabytes is not positive
+     */
+    static int getBucketCount(int megabytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("The size must be positive");
+        }
+        long buckets = (long) megabytes * 1024 * 1024 / (BYTES_PER_SLOT * SLOTS_PER_BUCKET);
+        // The longs of every bucket must be indexable by an int.
+        return (int) Long.highestOneBit(Math.min(buckets, Integer.MAX_VALUE / LONGS_PER_BUCKET));
+    }
+
+    /**
+     * Gets the number of entries a table of the specified size can hold,
+     * without allocating it.
+     *
+     * @param megabytes the size
+     * @return the capacity
+     * @throws IllegalArgumentException if megabytes is not positive
+     */
+    public static int getCapacityFor(int megabytes) {
+        return getBucketCount(megabytes) * SLOTS_PER_BUCKET;
+    }
+
+    /**
+     * Gets the number of entries the table can hold.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return (bucketMask + 1) * SLOTS_PER_BUCKET;
+    }
+
+    /**
+     * Reads one of the longs of the table.
+     *
+     * @param index the index
+     * @return the long
+     */
+    long read(int index) {
+        return slots[index];
+    }
+
+    /**
+     * Writes one of the longs of the table.
+     *
+     * @param index the index
+     * @param value the long
+     */
+    void write(int index, long value) {
+        slots[index] = value;
+    }
+
+    // Gets the index of the first long of the first slot of a key's bucket.
+    private int getBucketIndex(long key) {
+        return ((int) key & bucketMask) * LONGS_PER_BUCKET;
+    }
+
+    /**
+     * Records the result of a search of a position. It replaces the result
+     * in the first slot of the position's bucket if that came from a search
+     * no deeper, and otherwise the result in the second slot.
+     *
+     * @param key   the key of the position, which should distinguish the
+     *              player to move
+     * @param depth the depth searched
+     * @param value the value found, from the point of view of the player to
+     *              move
+     * @param bound how the value relates to the true value
+     * @param cell  the best move found, or -1 if none
+     */
+    public void putEntry(long key, int depth, double value, Bound bound, int cell) {
+        long entry = pack(depth, value, bound, cell);
+        int index = getBucketIndex(key);
+        long first = read(index + 1);
+        if (first != NO_ENTRY && getDepth(first) > getDepth(entry)) {
+            index += 2;
+        }
+        write(index, key ^ entry);
+        write(index + 1, entry);
+    }
+
+    /**
+     * Gets the result recorded for a position, from the deepest search if
+     * both slots of its bucket hold it.
+     *
+     * @param key the key of the position
+     * @return the entry, to be unpacked by {@link #getDepth(long)} and the
+     *         related methods, or {@link #NO_ENTRY} if there is none
+     */
+    public long probe(long key) {
+        int index = getBucketIndex(key);
+        for (int slot = 0; slot < SLOTS_PER_BUCKET; slot++, index += 2) {
+            long entry = read(index + 1);
+            if (entry != NO_ENTRY && (read(index) ^ entry) == key) {
+                return entry;
+            }
+        }
+        return NO_ENTRY;
+    }
+
+    /**
+     * Gets the result recorded for a position as an object.
+     *
+     * @param key the key of the position
+     * @return the entry, or null if there is none
+     * @see #probe(long)
+     */
+    public Entry getEntry(long key) {
+        long entry = probe(key);
+        return entry == NO_ENTRY
+                ? null
+                : new Entry(getDepth(entry), getValue(entry), getBound(entry), getCell(entry));
+    }
+
+    /**
+     * Gets the best move recorded for a position.
+     *
+     * @param key the key of the position
+     * @return the index of the cell to play, or -1 if there is none
+     */
+    public int getBestCell(long key) {
+        return getCell(probe(key));
     }
 
-    private final Map<String, Value> hash = new HashMap<>();
+    private static long pack(int depth, double value, Bound bound, int cell) {
+        return PRESENT
+                | (long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT
+                | (long) bound.ordinal() << BOUND_SHIFT
+                | (long) (cell + 1) << CELL_SHIFT
+                | Integer.toUnsignedLong(Float.floatToRawIntBits((float) value));
+    }
+
+    /**
+     * Gets the depth of a packed entry.
+     *
+     * @param entry the entry, which must not be {@link #NO_ENTRY}
+     * @return the depth
+     */
+    public static int getDepth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    /**
+     * Gets the value of a packed entry.
+     *
+     * @param entry the entry, which must not be {@link #NO_ENTRY}
+     * @return the value, from the point of view of the player to move
+     */
+    public static double getValue(long entry) {
+        return Float.intBitsToFloat((int) entry);
+    }
+
+    /**
+     * Gets the bound of a packed entry.
+     *
+     * @param entry the entry, which must not be {@link #NO_ENTRY}
+     * @return the bound
+     */
+    public static Bound getBound(long entry) {
+        return BOUNDS[(int) (entry >>> BOUND_SHIFT & BOUND_MASK)];
+    }
+
+    /**
+     * Gets the best move of a packed entry.
+     *
+     * @param entry the entry, or {@link #NO_ENTRY}
+     * @return the index of the cell to play, or -1 if there is none
+     */
+    public static int getCell(long entry) {
+        return (int) (entry >>> CELL_SHIFT & CELL_MASK) - 1;
+    }
+
+    /**
+     * Transforms the best move of an entry by a symmetry.
+     *
+     * @param symmetry the symmetry
+     * @param cell     the index of the cell to play, or -1 if none
+     * @param size     the number of rows (and the number of columns) on the
+     *                 board
+     * @return the index of the transformed cell, or -1 if none
+     */
+    static int transformCell(Symmetry symmetry, int cell, int size) {
+        return cell < 0 ? cell : symmetry.transformCell(cell, size);
+    }
+
+    // Gets the symmetry to the canonical position for the methods that don't
+    // know the player to move, which can only use the symmetries that keep
+    // the colors.
+    private static Symmetry getCanonical(GameModel model) {
+        return model.getHashKey(Symmetry.ROTATION) < model.getHashKey() ? Symmetry.ROTATION : Symmetry.IDENTITY;
+    }
 
     /**
      * Records that calling {@link
      * islands.model.SimulatedGameTreePlayer#getMyMove(GameModel, int, TileColor)}
-     * with the given model and depth produced the specified move.
+     * with the given model and depth produced the specified move. The move
+     * also serves the model rotated 180 degrees.
      *
      * @param model the model
      * @param depth the depth
      * @param move  the move
      */
     public void putMove(GameModel model, int depth, Move move) {
-        hash.put(model.toString(), new Value(depth, move));
-        putTransformations(model.getSize(), model.toString(), new Value(depth, move));
-    }
-
-    // Adds entries for each board representation equivalent (through
-    // rotation or reflection) with the passed board string.
-    private void putTransformations(int size, String boardString, Value value) {
-        String[] rows = boardString.split("\n");
-        StringBuilder sb = new StringBuilder();
-        for (int i = size - 1; i >= 0; i--) {
-            sb.append(new StringBuilder(rows[i]).reverse());
-            sb.append("\n");
-        }
-        String reversed = sb.toString();
+        Symmetry symmetry = getCanonical(model);
+        putMove(model, symmetry, model.getHashKey(symmetry), depth, move);
+    }
 
-        int x = size - 1 - value.move.row();
-        int y = size - 1 - value.move.col();
-        Move move = new Move(x, y, value.move.value());
-        hash.put(reversed, new Value(value.depth, move));
+    /**
+     * Records that calling {@link
+     * islands.model.SimulatedGameTreePlayer#getMyMove(GameModel, int, TileColor)}
+     * with the given model, depth and color produced the specified move. The
+     * move also serves every position equivalent by a {@link Symmetry}.
+     *
+     * @param model     the model
+     * @param tileColor the color of the player to move
+     * @param depth     the depth
+     * @param move      the move
+     */
+    public void putMove(GameModel model, TileColor tileColor, int depth, Move move) {
+        Symmetry symmetry = Symmetry.getCanonical(model, tileColor);
+        putMove(model, symmetry, symmetry.getHashKey(model, tileColor), depth, move);
+    }
+
+    private void putMove(GameModel model, Symmetry symmetry, long key, int depth, Move move) {
+        int size = model.getSize();
+        int cell = move.row() < 0 ? -1 : symmetry.transformCell(move.row() * size + move.col(), size);
+        putEntry(key, depth, move.value(), Bound.EXACT, cell);
     }
 
     /**
@@ -57,12 +371,25 @@ public class TranspositionTable {
      * @return true if a move is available, false otherwise
      */
     public boolean hasMove(GameModel model, int depth) {
-        String key = model.toString();
-        if (!hash.containsKey(key)) {
-            return false;
-        }
-        Value value = hash.get(key);
-        return value.depth >= depth;
+        return isDeepEnough(probe(model.getHashKey(getCanonical(model))), depth);
+    }
+
+    /**
+     * Checks whether this table has the move recommended for this model
+     * (or a position equivalent by a {@link Symmetry}) with the specified
+     * player to move when searching to the specified depth or deeper.
+     *
+     * @param model     the model
+     * @param tileColor the color of the player to move
+     * @param depth     the minimum search depth
+     * @return true if a move is available, false otherwise
+     */
+    public boolean hasMove(GameModel model, TileColor tileColor, int depth) {
+        return isDeepEnough(probe(Symmetry.getCanonical(model, tileColor).getHashKey(model, tileColor)), depth);
+    }
+
+    private static boolean isDeepEnough(long entry, int depth) {
+        return entry != NO_ENTRY && getDepth(entry) >= depth;
     }
 
     /**
@@ -78,14 +405,35 @@ public class TranspositionTable {
      *                                requested depth
      */
     public Move getMove(GameModel model, int depth) {
-        String key = model.toString();
-        if (!hash.containsKey(key)) {
-            throw new NoSuchElementException();
-        }
-        int currDepth = hash.get(key).depth;
-        if (depth > currDepth) {
+        Symmetry symmetry = getCanonical(model);
+        return getMove(model, symmetry, model.getHashKey(symmetry), depth);
+    }
+
+    /**
+     * Gets the stored move for this model with the specified player to move
+     * computed to the given depth or deeper.
+     *
+     * @param model     the model
+     * @param tileColor the color of the player to move
+     * @param depth     the depth
+     * @return the stored move
+     * @throws NoSuchElementException if this table does not have an entry
+     *                                with the specified model and player
+     *                                with a depth greater than or equal to
+     *                                the requested depth
+     */
+    public Move getMove(GameModel model, TileColor tileColor, int depth) {
+        Symmetry symmetry = Symmetry.getCanonical(model, tileColor);
+        return getMove(model, symmetry, symmetry.getHashKey(model, tileColor), depth);
+    }
+
+    private Move getMove(GameModel model, Symmetry symmetry, long key, int depth) {
+        long entry = probe(key);
+        if (!isDeepEnough(entry, depth)) {
             throw new NoSuchElementException();
         }
-        return hash.get(key).move();
+        int size = model.getSize();
+        int cell = transformCell(symmetry, getCell(entry), size);
+        return cell < 0 ? new Move(getValue(entry)) : new Move(cell / size, cell % size, getValue(entry));
     }
 }
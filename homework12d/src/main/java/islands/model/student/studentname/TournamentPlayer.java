@@ -4,9 +4,13 @@ import islands.model.GameModel;
 import islands.model.RowColPair;
 import islands.model.TileColor;
 import islands.model.TimeLimitedSimulatedPlayer;
+import islands.model.student.LazySmpSearch;
+import islands.model.student.SearchInterruptedException;
 
 /**
- * A simulated player for a timed tournament.
+ * A simulated player for a timed tournament. It searches with alpha-beta
+ * pruning to increasing depths, reporting the best move after each depth,
+ * until its time runs out. Every core is used, through Lazy SMP.
  */
 public class TournamentPlayer extends TimeLimitedSimulatedPlayer {
 
@@ -17,13 +21,21 @@ public class TournamentPlayer extends TimeLimitedSimulatedPlayer {
 
     @Override
     public void makeMove(GameModel model, TileColor tileColor, Listener listener) {
-        // For now, make a move into the first empty position.
-        for (int row = 0; row < model.getSize(); row++) {
-            for (int col = 0; col < model.getSize(); col++) {
-                if (model.canPlay(row, col)) {
-                    listener.receiveMove(new RowColPair(row, col));
-                }
-            }
+        // Report a legal move right away, in case not even the shallowest
+        // search finishes in time.
+        int size = model.getSize();
+        int cell = model.getEmptyCell(0);
+        listener.receiveMove(RowColPair.of(cell / size, cell % size));
+
+        // A new search is needed for each move, because the threads that
+        // searched for the last move may not have stopped yet.
+        LazySmpSearch searcher = new LazySmpSearch(Runtime.getRuntime().availableProcessors() - 1);
+        try {
+            searcher.searchIteratively(model, tileColor, Integer.MAX_VALUE,
+                    move -> listener.receiveMove(move.getPosition()));
+        } catch (SearchInterruptedException e) {
+            // Time is up. The listener has the move from the deepest
+            // completed search.
         }
     }
 }
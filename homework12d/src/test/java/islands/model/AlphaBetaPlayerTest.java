@@ -0,0 +1,146 @@
+package islands.model;
+
+import islands.model.student.AlphaBetaPlayer;
+import islands.model.student.LazySmpSearch;
+import islands.model.student.MinimaxPlayer;
+import islands.model.student.SearchInterruptedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AlphaBetaPlayerTest {
+
+    @Test
+    public void searchMatchesMinimaxValues() {
+        GameModel model = new GameModelImplementation(4);
+        TestHelperMethods.fill(model, 4, "Wnnn", "nBnn", "nnWn", "nnnB");
+        for (int depth = 1; depth <= 4; depth++) {
+            for (TileColor tileColor : new TileColor[]{TileColor.WHITE, TileColor.BLACK}) {
+                Move expected = new MinimaxPlayer().getMyMove(model, depth, tileColor);
+                Move actual = new AlphaBetaPlayer().search(model, depth, tileColor);
+                assertEquals(expected.value(), actual.value());
+            }
+        }
+    }
+
+    @Test
+    public void searchWithTableMatchesFullMinimax() {
+        // Iterative deepening reaches many positions again through the table.
+        GameModel model = new GameModelImplementation(3);
+        Move expected = new MinimaxPlayer().getMyMove(model, 9, TileColor.WHITE);
+        Move actual = new AlphaBetaPlayer().searchIteratively(model, TileColor.WHITE, 9, move -> {
+        });
+        assertEquals(expected.value(), actual.value());
+    }
+
+    @Test
+    public void searchIterativelyReportsEveryDepth() {
+        GameModel model = new GameModelImplementation(3);
+        TestHelperMethods.fill(model, 3, "Wnn", "nBn", "nnn");
+        String board = model.getBoardString();
+        List<Move> moves = new ArrayList<>();
+        Move best = new AlphaBetaPlayer().searchIteratively(model, TileColor.WHITE, 3, moves::add);
+        assertEquals(3, moves.size());
+        assertSame(best, moves.get(2));
+        assertEquals(new MinimaxPlayer().getMyMove(model, 3, TileColor.WHITE).value(), best.value());
+        assertEquals(board, model.getBoardString());
+    }
+
+    @Test
+    public void parallelSearchChoosesSerialMove() {
+        Random random = new Random(7);
+        for (int game = 0; game < 10; game++) {
+            GameModel model = new GameModelImplementation(5);
+            TileColor turn = TileColor.WHITE;
+            for (int plays = random.nextInt(8); plays > 0; plays--) {
+                int cell = model.getEmptyCell(random.nextInt(model.getEmptyCellCount()));
+                model.makePlay(cell / 5, cell % 5, turn);
+                turn = turn.getOpposite();
+            }
+            AlphaBetaPlayer parallel = new AlphaBetaPlayer();
+            parallel.setThreadCount(4);
+            Move expected = new AlphaBetaPlayer().search(model, 3, turn);
+            Move actual = parallel.search(model, 3, turn);
+            assertEquals(expected.value(), actual.value());
+            assertEquals(expected.getPosition(), actual.getPosition());
+        }
+    }
+
+    @Test
+    public void lazySmpSearchMatchesSerialValue() {
+        GameModel model = new GameModelImplementation(5);
+        TestHelperMethods.fill(model, 5, "nnnnn", "nWnnn", "nnBnn", "nnnnn", "nnnnn");
+        String board = model.getBoardString();
+        Move expected = new AlphaBetaPlayer().search(model, 4, TileColor.WHITE);
+        List<Move> moves = new ArrayList<>();
+        Move actual = new LazySmpSearch(3).searchIteratively(model, TileColor.WHITE, 4, moves::add);
+        assertEquals(4, moves.size());
+        assertEquals(expected.value(), actual.value());
+        assertEquals(board, model.getBoardString());
+    }
+
+    @Test
+    public void interruptedSearchStopsAndRestoresModel() {
+        GameModel model = new GameModelImplementation(7);
+        String board = model.getBoardString();
+        Thread.currentThread().interrupt();
+        assertThrows(SearchInterruptedException.class,
+                () -> new AlphaBetaPlayer().search(model, 4, TileColor.WHITE));
+        assertFalse(Thread.interrupted());
+        assertEquals(board, model.getBoardString());
+        assertEquals(49, model.getEmptyCellCount());
+    }
+
+    @Test
+    public void statisticsAreCountedPerMove() {
+        GameModel model = new GameModelImplementation(4);
+        TestHelperMethods.fill(model, 4, "Wnnn", "nBnn", "nnnn", "nnnn");
+        AlphaBetaPlayer player = new AlphaBetaPlayer();
+        assertNull(player.getLastMoveStatistics());
+
+        RowColPair move = player.timeAndChooseNextMove(model, TileColor.WHITE);
+        SearchStatistics first = player.getLastMoveStatistics();
+        assertTrue(first.leaves() > 0 && first.leaves() < first.nodes());
+        assertTrue(first.cutoffs() > 0);
+        assertTrue(first.firstMoveCutoffs() <= first.cutoffs());
+        assertTrue(first.tableHits() + first.tableMisses() > 0);
+        assertTrue(first.depth() > 0);
+        assertTrue(first.elapsedNanos() > 0);
+
+        model.makePlay(move.row(), move.column(), TileColor.WHITE);
+        player.timeAndChooseNextMove(model, TileColor.BLACK);
+        SearchStatistics second = player.getLastMoveStatistics();
+        assertEquals(player.getStatistics().nodes(), first.nodes() + second.nodes());
+        assertEquals(player.getNodeCount(), player.getStatistics().nodes());
+    }
+
+    @Test
+    public void parallelSearchCountsWorkersNodes() {
+        GameModel model = new GameModelImplementation(4);
+        AlphaBetaPlayer player = new AlphaBetaPlayer();
+        player.setThreadCount(2);
+        player.search(model, 4, TileColor.WHITE);
+        SearchStatistics statistics = player.getStatistics();
+        // Every move but the first is searched on a copy.
+        assertEquals(15, statistics.deepCopies());
+        assertTrue(statistics.nodes() > 16);
+        assertEquals(4, statistics.depth());
+    }
+
+    @Test
+    public void parallelSearchWorkersUseEvaluationCache() {
+        GameModel model = new BitboardGameModel(4);
+        AlphaBetaPlayer player = new AlphaBetaPlayer();
+        player.setThreadCount(2);
+        player.setEvaluationCacheEnabled(true);
+        player.search(model, 4, TileColor.WHITE);
+        SearchStatistics statistics = player.getStatistics();
+        // Every leaf, including the workers', goes through the cache.
+        assertEquals(statistics.leaves(), statistics.evaluationCacheHits() + statistics.evaluationCacheMisses());
+        assertTrue(statistics.evaluationCacheHits() > 0);
+    }
+}
@@ -0,0 +1,89 @@
+package islands.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static islands.model.TestHelperMethods.fill;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitboardGameModelTest {
+    private static final int[] SIZES = {1, 2, 3, 5, 8, 11, 25};
+    private static final int GAMES_PER_SIZE = 20;
+
+    // Plays the same random game on both implementations, comparing them
+    // after every move.
+    private void compareRandomGame(int size, Random random) {
+        GameModel expected = new GameModelImplementation(size);
+        GameModel actual = new BitboardGameModel(size);
+        TileColor turn = TileColor.WHITE;
+        while (!expected.isGameOver()) {
+            int row = random.nextInt(size);
+            int col = random.nextInt(size);
+            assertEquals(expected.canPlay(row, col), actual.canPlay(row, col));
+            if (expected.canPlay(row, col)) {
+                expected.makePlay(row, col, turn);
+                actual.makePlay(row, col, turn);
+                assertEquals(expected.getScore(TileColor.WHITE), actual.getScore(TileColor.WHITE));
+                assertEquals(expected.getScore(TileColor.BLACK), actual.getScore(TileColor.BLACK));
+                assertEquals(expected.isGameOver(), actual.isGameOver());
+                assertEquals(expected.getBoardString(), actual.getBoardString());
+                assertEquals(expected.getHashKey(), actual.getHashKey());
+                assertEquals(expected, actual);
+                assertEquals(expected.getEmptyCellCount(), actual.getEmptyCellCount());
+                turn = turn.getOpposite();
+            }
+        }
+        // Undo the game, comparing the models again.
+        while (!expected.getBoardString().equals(new GameModelImplementation(size).getBoardString())) {
+            expected.undoPlay();
+            actual.undoPlay();
+            assertEquals(expected.getBoardString(), actual.getBoardString());
+            assertEquals(expected.getHashKey(), actual.getHashKey());
+            assertEquals(expected.getScore(TileColor.WHITE), actual.getScore(TileColor.WHITE));
+            assertEquals(expected.isGameOver(), actual.isGameOver());
+        }
+        assertThrows(IllegalStateException.class, actual::undoPlay);
+    }
+
+    @Test
+    public void matchesGameModelImplementation() {
+        Random random = new Random(123);
+        for (int size : SIZES) {
+            for (int game = 0; game < GAMES_PER_SIZE; game++) {
+                compareRandomGame(size, random);
+            }
+        }
+    }
+
+    @Test
+    public void islandsWrapNeitherRowsNorDiagonals() {
+        GameModel model = new BitboardGameModel(3);
+        // (0, 2) and (1, 0) are adjacent in row-major order but not on the
+        // board, and (0, 1) and (1, 0) are on the non-adjacent diagonal.
+        fill(model, 3, "nWW", "Wnn", "nnn");
+        assertEquals(2, model.getScore(TileColor.WHITE));
+        assertFalse(model.isGameOver());
+    }
+
+    @Test
+    public void deepCopyDoesNotAffectOriginal() {
+        GameModel model = new BitboardGameModel(5);
+        model.makePlay(1, 1, TileColor.BLACK);
+        GameModel copy = model.deepCopy();
+        copy.makePlay(0, 1, TileColor.WHITE);
+        assertEquals(0, model.getScore(TileColor.WHITE));
+        assertTrue(model.canPlay(0, 1));
+        assertEquals(1, copy.getScore(TileColor.WHITE));
+        assertEquals(1, copy.getScore(TileColor.BLACK));
+    }
+
+    @Test
+    public void makePlayRejectsBadArguments() {
+        GameModel model = new BitboardGameModel(2);
+        model.makePlay(0, 0, TileColor.WHITE);
+        assertThrows(IllegalArgumentException.class, () -> model.makePlay(0, 0, TileColor.BLACK));
+        assertThrows(IllegalArgumentException.class, () -> model.makePlay(2, 0, TileColor.BLACK));
+        assertThrows(IllegalArgumentException.class, () -> model.makePlay(1, 1, TileColor.NONE));
+    }
+}
@@ -0,0 +1,87 @@
+package islands.model;
+
+import islands.model.student.ConcurrentTranspositionTable;
+import islands.model.student.TranspositionTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentTranspositionTableTest {
+    private static final int THREADS = 4;
+    private static final int OPERATIONS = 200_000;
+    // Keys are confined to this many buckets, so threads write the same
+    // slots all the time.
+    private static final int BUCKETS = 8;
+
+    // Derives everything stored for a key from the key, so that any entry
+    // read can be checked.
+    private static TranspositionTable.Entry getExpectedEntry(long key) {
+        return new TranspositionTable.Entry(
+                (int) (key >>> 40 & 63),
+                (int) (key >>> 20 & 1023) - 512,
+                TranspositionTable.Bound.values()[(int) Long.remainderUnsigned(key >>> 50, 3)],
+                (int) (key >>> 32 & 255));
+    }
+
+    private static void put(TranspositionTable table, long key) {
+        TranspositionTable.Entry entry = getExpectedEntry(key);
+        table.putEntry(key, entry.depth(), entry.value(), entry.bound(), entry.cell());
+    }
+
+    @Test
+    public void storesAndProbesLikeTheSingleThreadedTable() {
+        TranspositionTable table = new ConcurrentTranspositionTable(1);
+        assertEquals(new TranspositionTable(1).getCapacity(), table.getCapacity());
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(42L));
+        table.putEntry(42L, 3, -7.0, TranspositionTable.Bound.UPPER, 12);
+        assertEquals(new TranspositionTable.Entry(3, -7.0, TranspositionTable.Bound.UPPER, 12), table.getEntry(42L));
+    }
+
+    @Test
+    public void concurrentWritersNeverProduceTornEntries() throws InterruptedException {
+        TranspositionTable table = new ConcurrentTranspositionTable(1);
+        AtomicInteger hits = new AtomicInteger();
+        AtomicInteger corrupt = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < OPERATIONS; i++) {
+                    put(table, random.nextLong() << 16 | random.nextInt(BUCKETS));
+                    long key = random.nextLong() << 16 | random.nextInt(BUCKETS);
+                    TranspositionTable.Entry entry = table.getEntry(key);
+                    if (entry != null) {
+                        hits.incrementAndGet();
+                        if (!entry.equals(getExpectedEntry(key))) {
+                            corrupt.incrementAndGet();
+                        }
+                    }
+                    // Entries just written are usually still there.
+                    long written = random.nextLong() << 16 | random.nextInt(BUCKETS);
+                    put(table, written);
+                    entry = table.getEntry(written);
+                    if (entry != null) {
+                        hits.incrementAndGet();
+                        if (!entry.equals(getExpectedEntry(written))) {
+                            corrupt.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, corrupt.get());
+        assertTrue(hits.get() > 0);
+    }
+}
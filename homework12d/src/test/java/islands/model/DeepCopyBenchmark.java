@@ -0,0 +1,67 @@
+package islands.model;
+
+import java.util.Random;
+
+/**
+ * Measures how many times per second {@link GameModel#deepCopy()} can copy
+ * half-full boards of various sizes. This is not a test. Run it with
+ * {@link #main(String[])}.
+ */
+public class DeepCopyBenchmark {
+    private static final int[] SIZES = {5, 11, 25};
+    private static final long WARMUP_NS = 1_000_000_000L;
+    private static final long MEASURE_NS = 2_000_000_000L;
+
+    private DeepCopyBenchmark() {
+    }
+
+    // Fills about half of the cells, alternating colors.
+    private static GameModel buildHalfFullModel(int size) {
+        GameModel model = new GameModelImplementation(size);
+        Random random = new Random(123);
+        TileColor turn = TileColor.WHITE;
+        for (int plays = 0; plays < size * size / 2; ) {
+            int row = random.nextInt(size);
+            int col = random.nextInt(size);
+            if (model.canPlay(row, col)) {
+                model.makePlay(row, col, turn);
+                turn = turn.getOpposite();
+                plays++;
+            }
+        }
+        return model;
+    }
+
+    // Copies the model repeatedly for the given time, returning copies per
+    // second.
+    private static double measure(GameModel model, long durationNs) {
+        long copies = 0;
+        int sink = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < 1000; i++) {
+                sink += model.deepCopy().getSize();
+            }
+            copies += 1000;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < durationNs);
+        if (sink == 0) {
+            System.out.println();
+        }
+        return copies * 1e9 / elapsed;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        for (int size : SIZES) {
+            GameModel model = buildHalfFullModel(size);
+            measure(model, WARMUP_NS);
+            System.out.printf("%dx%d: %,.0f copies/s%n", size, size, measure(model, MEASURE_NS));
+        }
+    }
+}
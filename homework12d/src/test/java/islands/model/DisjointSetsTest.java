@@ -0,0 +1,69 @@
+package islands.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DisjointSetsTest {
+    @Test
+    public void unionMergesSetsOnce() {
+        DisjointSets sets = new DisjointSets(4);
+        assertTrue(sets.union(0, 1));
+        assertTrue(sets.union(2, 3));
+        assertFalse(sets.union(1, 0));
+        assertEquals(sets.find(0), sets.find(1));
+        assertNotEquals(sets.find(0), sets.find(2));
+        assertTrue(sets.union(1, 3));
+        assertEquals(sets.find(0), sets.find(2));
+    }
+
+    @Test
+    public void marksAreCombinedOnUnion() {
+        DisjointSets sets = new DisjointSets(3);
+        sets.mark(0, 1);
+        sets.mark(2, 2);
+        sets.union(0, 1);
+        assertEquals(1, sets.getMarks(1));
+        sets.union(1, 2);
+        assertEquals(3, sets.getMarks(0));
+    }
+
+    @Test
+    public void longChainsDoNotOverflowStack() {
+        final int count = 1_000_000;
+        DisjointSets sets = new DisjointSets();
+        sets.add();
+        for (int i = 1; i < count; i++) {
+            sets.union(sets.add(), i - 1);
+        }
+        assertEquals(count, sets.size());
+        assertEquals(sets.find(0), sets.find(count - 1));
+    }
+
+    @Test
+    public void deepCopyIsIndependent() {
+        DisjointSets sets = new DisjointSets(3);
+        sets.union(0, 1);
+        DisjointSets copy = sets.deepCopy();
+        copy.union(1, 2);
+        assertNotEquals(sets.find(0), sets.find(2));
+        assertEquals(copy.find(0), copy.find(2));
+    }
+
+    @Test
+    public void rollbackRestoresEarlierState() {
+        DisjointSets sets = new DisjointSets(4);
+        sets.union(0, 1);
+        int checkpoint = sets.checkpoint();
+        sets.mark(1, 1);
+        sets.union(2, 3);
+        sets.union(1, 3);
+        assertEquals(sets.find(0), sets.find(2));
+        sets.rollback(checkpoint);
+        assertEquals(sets.find(0), sets.find(1));
+        assertNotEquals(sets.find(0), sets.find(2));
+        assertNotEquals(sets.find(2), sets.find(3));
+        assertEquals(0, sets.getMarks(0));
+        assertThrows(IllegalArgumentException.class, () -> sets.rollback(-1));
+    }
+}
@@ -0,0 +1,72 @@
+package islands.model;
+
+import islands.model.student.AlphaBetaPlayer;
+import islands.model.student.MinimaxPlayer;
+
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Measures how often the evaluation cache of {@link SimulatedGameTreePlayer}
+ * finds the value of a leaf, and how that changes the time taken by
+ * depth-5 searches of an empty 5x5 board, with both model implementations.
+ * This is not a test. Run it with {@link #main(String[])}.
+ */
+public class EvaluationCacheBenchmark {
+    private static final int SIZE = 5;
+    private static final int DEPTH = 5;
+    private static final int REPETITIONS = 3;
+
+    private EvaluationCacheBenchmark() {
+    }
+
+    // Returns the fastest of several searches, in milliseconds, printing the
+    // cache counts of the last one.
+    private static double measure(Supplier<SimulatedGameTreePlayer> players,
+                                  BiConsumer<SimulatedGameTreePlayer, GameModel> search,
+                                  IntFunction<GameModel> models, boolean cached) {
+        double best = Double.MAX_VALUE;
+        SimulatedGameTreePlayer player = null;
+        for (int i = 0; i < REPETITIONS; i++) {
+            player = players.get();
+            player.setEvaluationCacheEnabled(cached);
+            GameModel model = models.apply(SIZE);
+            long start = System.nanoTime();
+            search.accept(player, model);
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+        }
+        if (cached) {
+            long hits = player.getEvaluationCacheHits();
+            long misses = player.getEvaluationCacheMisses();
+            System.out.printf("  hits %,d, misses %,d, hit rate %.1f%%%n",
+                    hits, misses, 100.0 * hits / (hits + misses));
+        }
+        return best;
+    }
+
+    private static void compare(String name, Supplier<SimulatedGameTreePlayer> players,
+                                BiConsumer<SimulatedGameTreePlayer, GameModel> search,
+                                String modelName, IntFunction<GameModel> models) {
+        System.out.printf("%s, %s:%n", name, modelName);
+        double plain = measure(players, search, models, false);
+        double cached = measure(players, search, models, true);
+        System.out.printf("  uncached %.0f ms, cached %.0f ms, speedup %.2f%n", plain, cached, plain / cached);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        BiConsumer<SimulatedGameTreePlayer, GameModel> minimax =
+                (player, model) -> player.getMyMove(model, DEPTH, TileColor.WHITE);
+        BiConsumer<SimulatedGameTreePlayer, GameModel> alphaBeta =
+                (player, model) -> ((AlphaBetaPlayer) player).search(model, DEPTH, TileColor.WHITE);
+        compare("Minimax", MinimaxPlayer::new, minimax, "GameModelImplementation", GameModelImplementation::new);
+        compare("Minimax", MinimaxPlayer::new, minimax, "BitboardGameModel", BitboardGameModel::new);
+        compare("Alpha-beta", AlphaBetaPlayer::new, alphaBeta, "GameModelImplementation", GameModelImplementation::new);
+        compare("Alpha-beta", AlphaBetaPlayer::new, alphaBeta, "BitboardGameModel", BitboardGameModel::new);
+    }
+}
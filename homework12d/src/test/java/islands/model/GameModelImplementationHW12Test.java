@@ -3,6 +3,13 @@ package islands.model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Random;
+
 import static islands.model.TestHelperMethods.fill;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -75,6 +82,189 @@ public class GameModelImplementationHW12Test {
         assertEquals(2, model2copy2.getScore(TileColor.WHITE));
     }
 
+    @Test
+    public void getScoreCountsMergedIslandsOnce() {
+        GameModel model3 = new GameModelImplementation(3);
+        fill(model3, 3, "WnW", "nnn", "WnB");
+        assertEquals(3, model3.getScore(TileColor.WHITE));
+        assertEquals(1, model3.getScore(TileColor.BLACK));
+        // (1, 1) extends the island at (0, 0).
+        model3.makePlay(1, 1, TileColor.WHITE);
+        assertEquals(3, model3.getScore(TileColor.WHITE));
+        // (0, 1) joins two islands, and (1, 0) joins the last two.
+        model3.makePlay(0, 1, TileColor.WHITE);
+        assertEquals(2, model3.getScore(TileColor.WHITE));
+        model3.makePlay(1, 0, TileColor.WHITE);
+        assertEquals(1, model3.getScore(TileColor.WHITE));
+        assertEquals(1, model3.getScore(TileColor.BLACK));
+    }
+
+    @Test
+    public void isGameOverDetectsWhitePath() {
+        GameModel model3 = new GameModelImplementation(3);
+        fill(model3, 3, "Wnn", "Bnn", "nnn");
+        model3.makePlay(1, 1, TileColor.WHITE);
+        assertFalse(model3.isGameOver());
+        model3.makePlay(2, 1, TileColor.WHITE);
+        assertTrue(model3.isGameOver());
+    }
+
+    @Test
+    public void isGameOverDetectsBlackPath() {
+        GameModel model3 = new GameModelImplementation(3);
+        // (1, 0) and (0, 1) are not neighbors.
+        fill(model3, 3, "nBB", "Bnn", "nnn");
+        assertFalse(model3.isGameOver());
+        model3.makePlay(1, 1, TileColor.BLACK);
+        assertTrue(model3.isGameOver());
+    }
+
+    @Test
+    public void undoPlayRestoresEarlierStates() {
+        Random random = new Random(123);
+        List<String> boards = new ArrayList<>();
+        List<List<Object>> states = new ArrayList<>();
+        TileColor turn = TileColor.WHITE;
+        while (!model5.isGameOver()) {
+            int row = random.nextInt(5);
+            int col = random.nextInt(5);
+            if (model5.canPlay(row, col)) {
+                boards.add(model5.getBoardString());
+                states.add(List.of(model5.getScore(TileColor.WHITE),
+                        model5.getScore(TileColor.BLACK), model5.isGameOver()));
+                model5.makePlay(row, col, turn);
+                turn = turn.getOpposite();
+            }
+        }
+        for (int i = boards.size() - 1; i >= 0; i--) {
+            model5.undoPlay();
+            assertEquals(boards.get(i), model5.getBoardString());
+            assertEquals(states.get(i), List.of(model5.getScore(TileColor.WHITE),
+                    model5.getScore(TileColor.BLACK), model5.isGameOver()));
+        }
+        assertThrows(IllegalStateException.class, () -> model5.undoPlay());
+    }
+
+    @Test
+    public void undoPlayDoesNotReachBeforeCopy() {
+        model5.makePlay(0, 0, TileColor.WHITE);
+        GameModel model5copy = model5.deepCopy();
+        assertThrows(IllegalStateException.class, model5copy::undoPlay);
+        model5copy.makePlay(0, 1, TileColor.WHITE);
+        model5copy.undoPlay();
+        assertEquals(1, model5copy.getScore(TileColor.WHITE));
+        assertFalse(model5copy.canPlay(0, 0));
+    }
+
+    @Test
+    public void hashKeyDependsOnlyOnPosition() {
+        GameModel other = new GameModelImplementation(5);
+        assertEquals(model5.getHashKey(), other.getHashKey());
+        model5.makePlay(0, 0, TileColor.WHITE);
+        model5.makePlay(1, 1, TileColor.BLACK);
+        assertNotEquals(model5.getHashKey(), other.getHashKey());
+        assertNotEquals(model5, other);
+        other.makePlay(1, 1, TileColor.BLACK);
+        other.makePlay(0, 0, TileColor.WHITE);
+        assertEquals(model5.getHashKey(), other.getHashKey());
+        assertEquals(model5, other);
+        assertEquals(model5.hashCode(), other.hashCode());
+        other.undoPlay();
+        other.makePlay(0, 0, TileColor.BLACK);
+        assertNotEquals(model5.getHashKey(), other.getHashKey());
+        assertEquals(model5.getHashKey(), model5.deepCopy().getHashKey());
+    }
+
+    @Test
+    public void binaryEncodingRoundTrips() {
+        Random random = new Random(123);
+        GameModel model25 = new GameModelImplementation(25);
+        TileColor turn = TileColor.WHITE;
+        for (int plays = 0; plays < 300; ) {
+            int row = random.nextInt(25);
+            int col = random.nextInt(25);
+            if (model25.canPlay(row, col)) {
+                model25.makePlay(row, col, turn);
+                turn = turn.getOpposite();
+                plays++;
+            }
+        }
+        byte[] bytes = ((GameModelImplementation) model25).toBytes();
+        assertEquals(157, bytes.length);
+        GameModel decoded = GameModelImplementation.fromBytes(25, bytes);
+        assertEquals(model25.getBoardString(), decoded.getBoardString());
+        assertEquals(model25.getHashKey(), decoded.getHashKey());
+        assertEquals(model25.getScore(TileColor.WHITE), decoded.getScore(TileColor.WHITE));
+        assertEquals(model25.getScore(TileColor.BLACK), decoded.getScore(TileColor.BLACK));
+        assertEquals(model25.isGameOver(), decoded.isGameOver());
+        assertThrows(IllegalStateException.class, decoded::undoPlay);
+    }
+
+    @Test
+    public void binaryEncodingReadsFromBuffer() {
+        GameModel model3 = new GameModelImplementation(3);
+        fill(model3, 3, "WBn", "Wnn", "nWn");
+        ByteBuffer buffer = ByteBuffer.allocate(10);
+        buffer.put((byte) 7);
+        buffer.put(((GameModelImplementation) model3).toBytes());
+        buffer.flip();
+        buffer.get();
+        GameModel decoded = GameModelImplementation.fromBytes(3, buffer);
+        assertEquals("WBn\nWnn\nnWn\n", decoded.getBoardString());
+        assertEquals(1 + GameModelImplementation.getEncodedLength(3), buffer.position());
+        assertTrue(decoded.isGameOver());
+    }
+
+    @Test
+    public void binaryEncodingRejectsInvalidBytes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> GameModelImplementation.fromBytes(3, new byte[2]));
+        // 3 is not a TileColor ordinal.
+        assertThrows(IllegalArgumentException.class,
+                () -> GameModelImplementation.fromBytes(3, new byte[]{3, 0, 0}));
+        // Bits past the last cell must be 0.
+        assertThrows(IllegalArgumentException.class,
+                () -> GameModelImplementation.fromBytes(3, new byte[]{0, 0, 4}));
+    }
+
+    private static List<Integer> getEmptyCells(GameModel model) {
+        List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < model.getEmptyCellCount(); i++) {
+            cells.add(model.getEmptyCell(i));
+        }
+        return cells;
+    }
+
+    @Test
+    public void emptyCellsMatchCanPlay() {
+        fill(model5, 5, "WnBnn", "nnnWn", "Bnnnn", "nnnnn", "nnnnW");
+        Set<Integer> expected = new HashSet<>();
+        for (int row = 0; row < 5; row++) {
+            for (int col = 0; col < 5; col++) {
+                if (model5.canPlay(row, col)) {
+                    expected.add(row * 5 + col);
+                }
+            }
+        }
+        List<Integer> actual = getEmptyCells(model5);
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected, new HashSet<>(actual));
+    }
+
+    @Test
+    public void undoPlayRestoresEmptyCellOrder() {
+        fill(model5, 5, "WnBnn", "nnnWn");
+        List<Integer> before = getEmptyCells(model5);
+        model5.makePlay(2, 2, TileColor.WHITE);
+        model5.makePlay(0, 1, TileColor.BLACK);
+        model5.makePlay(4, 4, TileColor.WHITE);
+        assertFalse(getEmptyCells(model5).contains(2 * 5 + 2));
+        model5.undoPlay();
+        model5.undoPlay();
+        model5.undoPlay();
+        assertEquals(before, getEmptyCells(model5));
+    }
+
     @Test
     public void getBoardStringWorks3() {
         GameModel model3 = new GameModelImplementation(3);
@@ -0,0 +1,47 @@
+package islands.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphTest {
+
+    @Test
+    public void neighborsSurviveWideningAndCopying() {
+        Graph<String> graph = new Graph<>();
+        Graph.Node<String> hub = graph.addNode("hub");
+        List<Graph.Node<String>> spokes = new ArrayList<>();
+        // More than the default number of neighbor slots, and more nodes
+        // than the default capacity.
+        for (int i = 0; i < 20; i++) {
+            Graph.Node<String> spoke = graph.addNode("spoke");
+            graph.addEdge(hub, spoke);
+            spokes.add(spoke);
+        }
+        assertEquals(spokes, hub.getNeighbors());
+        assertEquals(List.of(hub), spokes.get(7).getNeighbors());
+
+        Graph<String> copy = graph.deepCopy();
+        Graph.Node<String> copiedHub = copy.getNodes().get(0);
+        assertEquals(copy.getNodes().subList(1, 21), copiedHub.getNeighbors());
+        assertTrue(copiedHub.getNeighbors().get(3).union(copiedHub.getNeighbors().get(4)));
+        assertEquals(20, graph.getSetCount("spoke"));
+        assertEquals(19, copy.getSetCount("spoke"));
+    }
+
+    @Test
+    public void detachedNodeIsInAGraphOfItsOwn() {
+        Graph.Node<String> node = new Graph.Node<>("alone");
+        assertSame(node, node.find());
+        assertTrue(node.getNeighbors().isEmpty());
+        node.mark(2);
+        assertEquals(2, node.getMarks());
+
+        Graph.Node<String> other = new Graph<String>().addNode("other");
+        assertThrows(IllegalArgumentException.class, () -> node.union(other));
+        assertThrows(IllegalArgumentException.class, () -> node.addEdge(other));
+    }
+}
@@ -0,0 +1,72 @@
+package islands.model;
+
+import islands.model.student.MappedTranspositionTable;
+import islands.model.student.TranspositionTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedTranspositionTableTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void entriesSurviveReopening() throws IOException {
+        Path file = directory.resolve("table.tt");
+        GameModel model = new GameModelImplementation(3);
+        TestHelperMethods.fill(model, 3, "WWn", "Bnn", "nnB");
+        Move move = new Move(2, 1, 20);
+
+        MappedTranspositionTable table = new MappedTranspositionTable(file, 1);
+        assertEquals(MappedTranspositionTable.HEADER_BYTES + (1 << 20), Files.size(file));
+        table.putEntry(42L, 5, -3.0, TranspositionTable.Bound.LOWER, 17);
+        table.putMove(model, TileColor.WHITE, 4, move);
+        table.flush();
+
+        TranspositionTable reopened = new MappedTranspositionTable(file, 1);
+        assertEquals(new TranspositionTable.Entry(5, -3.0, TranspositionTable.Bound.LOWER, 17), reopened.getEntry(42L));
+        assertEquals(move, reopened.getMove(model, TileColor.WHITE, 4));
+        assertEquals(TranspositionTable.NO_ENTRY, reopened.probe(43L));
+
+        // A table of another size can't find the entries, so it starts
+        // over.
+        TranspositionTable larger = new MappedTranspositionTable(file, 2);
+        assertEquals(TranspositionTable.NO_ENTRY, larger.probe(42L));
+        assertEquals(MappedTranspositionTable.HEADER_BYTES + (2 << 20), Files.size(file));
+    }
+
+    @Test
+    public void entriesDoNotServeOtherBoardSizes() throws IOException {
+        Path file = directory.resolve("table.tt");
+        MappedTranspositionTable table = new MappedTranspositionTable(file, 1);
+        table.putMove(new GameModelImplementation(6), TileColor.WHITE, 5, new Move(5, 5, 3));
+        table.flush();
+
+        TranspositionTable reopened = new MappedTranspositionTable(file, 1);
+        assertTrue(reopened.hasMove(new GameModelImplementation(6), TileColor.WHITE, 5));
+        assertFalse(reopened.hasMove(new GameModelImplementation(4), TileColor.WHITE, 5));
+        assertFalse(reopened.hasMove(new BitboardGameModel(4), TileColor.WHITE, 5));
+    }
+
+    @Test
+    public void fileWithUnknownHeaderIsCleared() throws IOException {
+        Path file = directory.resolve("table.tt");
+        MappedTranspositionTable table = new MappedTranspositionTable(file, 1);
+        table.putEntry(42L, 5, -3.0, TranspositionTable.Bound.LOWER, 17);
+        table.flush();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES), 0);
+        }
+
+        TranspositionTable reopened = new MappedTranspositionTable(file, 1);
+        assertEquals(TranspositionTable.NO_ENTRY, reopened.probe(42L));
+    }
+}
@@ -29,4 +29,16 @@ public class MiniMaxPlayerTest {
         }
     }
 
+    @Test
+    public void searchLeavesModelUnchanged() {
+        MinimaxPlayer player = new MinimaxPlayer();
+        GameModel model = new GameModelImplementation(3);
+        TestHelperMethods.fill(model, 3, "Wnn", "nBn", "nnn");
+        String board = model.getBoardString();
+        player.getMyMove(model, 3, TileColor.WHITE);
+        assertEquals(board, model.getBoardString());
+        assertEquals(1, model.getScore(TileColor.WHITE));
+        assertEquals(1, model.getScore(TileColor.BLACK));
+    }
+
 }
@@ -0,0 +1,41 @@
+package islands.model;
+
+import islands.model.student.MonteCarloPlayer;
+import islands.model.student.ParallelMonteCarloPlayer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MonteCarloPlayerTest {
+
+    @Test
+    public void choosesOnlyWinningMove() {
+        // Full-depth minimax shows that (3, 0) is White's only winning move.
+        GameModel model = new GameModelImplementation(4);
+        TestHelperMethods.fill(model, 4, "nBBn", "nnBW", "WWnn", "nnBW");
+        String board = model.getBoardString();
+        RowColPair move = new MonteCarloPlayer(5000, new Random(123)).chooseNextMove(model, TileColor.WHITE);
+        assertEquals(RowColPair.of(3, 0), move);
+        assertEquals(board, model.getBoardString());
+    }
+
+    @Test
+    public void parallelPlayerChoosesOnlyWinningMove() {
+        GameModel model = new GameModelImplementation(4);
+        TestHelperMethods.fill(model, 4, "nBBn", "nnBW", "WWnn", "nnBW");
+        ParallelMonteCarloPlayer player = new ParallelMonteCarloPlayer(2);
+        // The tree of this move is reset and reused for the next.
+        player.chooseNextMove(new GameModelImplementation(4), TileColor.BLACK);
+        assertEquals(RowColPair.of(3, 0), player.chooseNextMove(model, TileColor.WHITE));
+        assertTrue(player.getLastPlayoutCount() > 0);
+    }
+
+    @Test
+    public void rejectsNonPositivePlayouts() {
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarloPlayer(0));
+    }
+}
@@ -0,0 +1,39 @@
+package islands.model;
+
+import islands.model.student.ParallelMonteCarloPlayer;
+
+/**
+ * Measures how many Monte Carlo playouts per second a parallel player runs
+ * from an empty 11x11 board within its time limit, for various numbers of
+ * threads. This is not a test. Run it with {@link #main(String[])}.
+ */
+public class MonteCarloScalingBenchmark {
+    private static final int SIZE = 11;
+    private static final int MAX_THREADS = 16;
+
+    private MonteCarloScalingBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        System.out.printf("%d cores available%n", Runtime.getRuntime().availableProcessors());
+        double seconds = TimeLimitedSimulatedPlayer.MAX_MOVE_TIME_MS / 1000.0;
+        double singleThreadRate = 0;
+        for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+            ParallelMonteCarloPlayer player = new ParallelMonteCarloPlayer(threads);
+            // Warm up.
+            player.chooseNextMove(new GameModelImplementation(SIZE), TileColor.WHITE);
+            player.chooseNextMove(new GameModelImplementation(SIZE), TileColor.WHITE);
+            double rate = player.getLastPlayoutCount() / seconds;
+            if (threads == 1) {
+                singleThreadRate = rate;
+            }
+            System.out.printf("%2d threads: %,10.0f playouts/s, %,9.0f per thread, speedup %.2f%n",
+                    threads, rate, rate / threads, rate / singleThreadRate);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package islands.model;
+
+import islands.model.student.AlphaBetaPlayer;
+
+import java.util.Random;
+
+/**
+ * Compares iterative-deepening alpha-beta searches of a fixed suite of
+ * positions with and without the move-ordering heuristics, reporting node
+ * counts and how often the first move tried causes a cutoff. This is not a
+ * test. Run it with {@link #main(String[])}.
+ */
+public class MoveOrderingBenchmark {
+    private static final int[] SIZES = {5, 7, 11};
+    private static final int[] DEPTHS = {7, 5, 4};
+    private static final int POSITIONS_PER_SIZE = 5;
+
+    private MoveOrderingBenchmark() {
+    }
+
+    // Makes a position with a few random tiles of each color.
+    private static GameModel buildPosition(int size, Random random) {
+        GameModel model = new GameModelImplementation(size);
+        TileColor turn = TileColor.WHITE;
+        for (int plays = 2 * (1 + random.nextInt(size / 2)); plays > 0; plays--) {
+            int cell = model.getEmptyCell(random.nextInt(model.getEmptyCellCount()));
+            model.makePlay(cell / size, cell % size, turn);
+            turn = turn.getOpposite();
+        }
+        return model;
+    }
+
+    private static void report(String label, AlphaBetaPlayer player, long ns) {
+        SearchStatistics statistics = player.getStatistics();
+        System.out.printf("  %-14s %,12d nodes %,10d cutoffs %5.1f%% on first move %,8.1f ms%n",
+                label, statistics.nodes(), statistics.cutoffs(),
+                100 * statistics.getFirstMoveCutoffRate(), ns / 1e6);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Random random = new Random(2024);
+        for (int s = 0; s < SIZES.length; s++) {
+            int size = SIZES[s];
+            System.out.printf("%dx%d, depth %d%n", size, size, DEPTHS[s]);
+            AlphaBetaPlayer plain = new AlphaBetaPlayer();
+            plain.setMoveOrderingHeuristicsEnabled(false);
+            AlphaBetaPlayer ordered = new AlphaBetaPlayer();
+            long plainNs = 0;
+            long orderedNs = 0;
+            for (int i = 0; i < POSITIONS_PER_SIZE; i++) {
+                GameModel model = buildPosition(size, random);
+                long start = System.nanoTime();
+                Move plainMove = plain.searchIteratively(model, TileColor.WHITE, DEPTHS[s], move -> {
+                });
+                plainNs += System.nanoTime() - start;
+                start = System.nanoTime();
+                Move orderedMove = ordered.searchIteratively(model, TileColor.WHITE, DEPTHS[s], move -> {
+                });
+                orderedNs += System.nanoTime() - start;
+                if (plainMove.value() != orderedMove.value()) {
+                    throw new AssertionError("Values differ: " + plainMove + " " + orderedMove);
+                }
+            }
+            report("PV and table", plain, plainNs);
+            report("all heuristics", ordered, orderedNs);
+        }
+    }
+}
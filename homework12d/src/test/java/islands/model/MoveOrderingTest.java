@@ -0,0 +1,64 @@
+package islands.model;
+
+import islands.model.student.AlphaBetaPlayer;
+import islands.model.student.MoveOrdering;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MoveOrderingTest {
+
+    @Test
+    public void chosenMovesComeFirstThenKillersThenAdjacentCells() {
+        GameModel model = new GameModelImplementation(3);
+        TestHelperMethods.fill(model, 3, "nnn", "nnn", "nnW");
+        MoveOrdering ordering = new MoveOrdering(3);
+        ordering.startSearch(2);
+        ordering.recordCutoff(0, 1, 3, 4, TileColor.WHITE);
+
+        assertEquals(8, ordering.orderMoves(model, 0, 2, TileColor.WHITE, 0, 1));
+        assertEquals(0, ordering.getMove(0, 0));
+        assertEquals(1, ordering.getMove(0, 1));
+        // Cell 4 was a killer.
+        assertEquals(4, ordering.getMove(0, 2));
+        // Cells 5 and 7 are next to the tile at cell 8.
+        int next = ordering.getMove(0, 3);
+        int nextButOne = ordering.getMove(0, 4);
+        assertEquals(Set.of(5, 7), Set.of(next, nextButOne));
+    }
+
+    @Test
+    public void adjacencyCanBeTurnedOff() {
+        GameModel model = new GameModelImplementation(3);
+        TestHelperMethods.fill(model, 3, "nnn", "nnn", "nnW");
+        MoveOrdering ordering = new MoveOrdering(3);
+        ordering.setAdjacencyEnabled(false);
+        ordering.startSearch(2);
+        ordering.recordBestMove(2, 6, TileColor.WHITE);
+
+        assertEquals(8, ordering.orderMoves(model, 0, 2, TileColor.WHITE, -1, -1));
+        // The move with history comes first, and cells 5 and 7, next to
+        // the tile, don't jump ahead of the others.
+        assertEquals(6, ordering.getMove(0, 0));
+        assertEquals(1, ordering.getMove(0, 1));
+        assertEquals(2, ordering.getMove(0, 2));
+    }
+
+    @Test
+    public void countsFirstMoveCutoffs() {
+        GameModel model = new GameModelImplementation(4);
+        TestHelperMethods.fill(model, 4, "Wnnn", "nBnn", "nnnn", "nnnn");
+        AlphaBetaPlayer player = new AlphaBetaPlayer();
+        player.searchIteratively(model, TileColor.WHITE, 4, move -> {
+        });
+        SearchStatistics statistics = player.getStatistics();
+        assertTrue(statistics.cutoffs() > 0);
+        assertTrue(statistics.firstMoveCutoffs() > 0);
+        assertTrue(statistics.firstMoveCutoffs() <= statistics.cutoffs());
+        assertEquals((double) statistics.firstMoveCutoffs() / statistics.cutoffs(),
+                statistics.getFirstMoveCutoffRate());
+    }
+}
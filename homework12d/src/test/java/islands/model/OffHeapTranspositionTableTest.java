@@ -0,0 +1,44 @@
+package islands.model;
+
+import islands.model.student.OffHeapTranspositionTable;
+import islands.model.student.TranspositionTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapTranspositionTableTest {
+    private static final int OPERATIONS = 100_000;
+
+    @Test
+    public void behavesLikeOnHeapTable() {
+        TranspositionTable onHeap = new TranspositionTable(1);
+        try (OffHeapTranspositionTable offHeap = new OffHeapTranspositionTable(1)) {
+            assertEquals(onHeap.getCapacity(), offHeap.getCapacity());
+            Random random = new Random(5);
+            TranspositionTable.Bound[] bounds = TranspositionTable.Bound.values();
+            for (int i = 0; i < OPERATIONS; i++) {
+                // Few enough keys that many are probed after being stored.
+                long key = random.nextInt(1 << 17) * 0x9E3779B97F4A7C15L;
+                if (random.nextBoolean()) {
+                    int depth = random.nextInt(20);
+                    double value = random.nextInt(200) - 100;
+                    TranspositionTable.Bound bound = bounds[random.nextInt(bounds.length)];
+                    int cell = random.nextInt(122) - 1;
+                    onHeap.putEntry(key, depth, value, bound, cell);
+                    offHeap.putEntry(key, depth, value, bound, cell);
+                } else {
+                    assertEquals(onHeap.probe(key), offHeap.probe(key));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void closingTwiceDoesNothing() {
+        OffHeapTranspositionTable table = new OffHeapTranspositionTable(1);
+        table.close();
+        assertDoesNotThrow(table::close);
+    }
+}
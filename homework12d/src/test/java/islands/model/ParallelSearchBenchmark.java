@@ -0,0 +1,55 @@
+package islands.model;
+
+import islands.model.student.AlphaBetaPlayer;
+
+/**
+ * Measures how long a parallel alpha-beta search of an empty board takes
+ * with various numbers of threads, and the speedup over one thread. This
+ * is not a test. Run it with {@link #main(String[])}.
+ */
+public class ParallelSearchBenchmark {
+    private static final int[] SIZES = {5, 11};
+    private static final int[] DEPTHS = {7, 4};
+    private static final int REPETITIONS = 3;
+
+    private ParallelSearchBenchmark() {
+    }
+
+    // Returns the fastest of several searches, in milliseconds.
+    private static double measure(int size, int depth, int threads) {
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < REPETITIONS; i++) {
+            AlphaBetaPlayer player = new AlphaBetaPlayer();
+            player.setThreadCount(threads);
+            GameModel model = new GameModelImplementation(size);
+            long start = System.nanoTime();
+            player.search(model, depth, TileColor.WHITE);
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+            // Shut down the player's pool.
+            player.setThreadCount(1);
+        }
+        return best;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int s = 0; s < SIZES.length; s++) {
+            int size = SIZES[s];
+            int depth = DEPTHS[s];
+            // Warm up.
+            measure(size, depth, 1);
+            double serial = measure(size, depth, 1);
+            System.out.printf("%dx%d, depth %d, 1 thread: %.1f ms%n", size, size, depth, serial);
+            for (int threads = 2; threads <= Math.max(2, cores); threads *= 2) {
+                double parallel = measure(size, depth, threads);
+                System.out.printf("%dx%d, depth %d, %d threads: %.1f ms, speedup %.2f%n",
+                        size, size, depth, threads, parallel, serial / parallel);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package islands.model;
+
+import islands.model.student.AlphaBetaPlayer;
+import islands.model.student.PrincipalVariationPlayer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrincipalVariationPlayerTest {
+    private static final int SIZE = 4;
+    private static final int DEPTH = 8;
+
+    @Test
+    public void matchesAlphaBetaWithFewerNodes() {
+        Random random = new Random(11);
+        long alphaBetaNodes = 0;
+        long principalVariationNodes = 0;
+        for (int i = 0; i < 6; i++) {
+            GameModel model = new GameModelImplementation(SIZE);
+            TileColor turn = TileColor.WHITE;
+            for (int plays = 2 + random.nextInt(4); plays > 0; plays--) {
+                int cell = model.getEmptyCell(random.nextInt(model.getEmptyCellCount()));
+                model.makePlay(cell / SIZE, cell % SIZE, turn);
+                turn = turn.getOpposite();
+            }
+            String board = model.getBoardString();
+            AlphaBetaPlayer alphaBeta = new AlphaBetaPlayer();
+            PrincipalVariationPlayer principalVariation = new PrincipalVariationPlayer();
+            Move expected = alphaBeta.searchIteratively(model, turn, DEPTH, move -> {
+            });
+            Move actual = principalVariation.searchIteratively(model, turn, DEPTH, move -> {
+            });
+            assertEquals(expected.value(), actual.value(), board);
+            assertEquals(board, model.getBoardString());
+            alphaBetaNodes += alphaBeta.getNodeCount();
+            principalVariationNodes += principalVariation.getNodeCount();
+        }
+        assertTrue(principalVariationNodes < alphaBetaNodes,
+                principalVariationNodes + " nodes is not fewer than " + alphaBetaNodes);
+    }
+}
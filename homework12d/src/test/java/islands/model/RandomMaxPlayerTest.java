@@ -0,0 +1,42 @@
+package islands.model;
+
+import islands.model.student.RandomMaxPlayer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RandomMaxPlayerTest {
+    private static final int POSITIONS = 30;
+
+    @Test
+    public void pruningKeepsMovesAndValues() {
+        Random random = new Random(17);
+        long prunedNodes = 0;
+        long fullNodes = 0;
+        for (int position = 0; position < POSITIONS; position++) {
+            int size = 3 + position % 2;
+            GameModel model = new GameModelImplementation(size);
+            TileColor turn = TileColor.WHITE;
+            for (int plays = random.nextInt(size * 2); plays > 0 && !model.isGameOver(); plays--) {
+                int cell = model.getEmptyCell(random.nextInt(model.getEmptyCellCount()));
+                model.makePlay(cell / size, cell % size, turn);
+                turn = turn.getOpposite();
+            }
+            String board = model.getBoardString();
+            for (int depth = 1; depth <= 4; depth++) {
+                RandomMaxPlayer full = new RandomMaxPlayer();
+                full.setPruningEnabled(false);
+                RandomMaxPlayer pruned = new RandomMaxPlayer();
+                assertEquals(full.getMyMove(model, depth, turn), pruned.getMyMove(model, depth, turn));
+                assertEquals(full.getOpponentValue(model, depth, turn), pruned.getOpponentValue(model, depth, turn));
+                assertEquals(board, model.getBoardString());
+                fullNodes += full.getNodeCount();
+                prunedNodes += pruned.getNodeCount();
+            }
+        }
+        assertTrue(prunedNodes < fullNodes);
+    }
+}
@@ -0,0 +1,58 @@
+package islands.model;
+
+import islands.model.student.RandomMaxPlayer;
+
+/**
+ * Compares the number of positions searched, and the time taken, by
+ * {@link RandomMaxPlayer} with and without pruning, at each depth on an
+ * empty 5x5 board and on one with a few tiles. This is not a test. Run it
+ * with {@link #main(String[])}.
+ */
+public class RandomMaxPruningBenchmark {
+    private static final int SIZE = 5;
+    private static final int MAX_DEPTH = 5;
+
+    private RandomMaxPruningBenchmark() {
+    }
+
+    private static void compare(GameModel model, int depth) {
+        RandomMaxPlayer full = new RandomMaxPlayer();
+        full.setPruningEnabled(false);
+        long start = System.nanoTime();
+        Move fullMove = full.getMyMove(model, depth, TileColor.WHITE);
+        double fullMs = (System.nanoTime() - start) / 1e6;
+
+        RandomMaxPlayer pruned = new RandomMaxPlayer();
+        start = System.nanoTime();
+        Move prunedMove = pruned.getMyMove(model, depth, TileColor.WHITE);
+        double prunedMs = (System.nanoTime() - start) / 1e6;
+
+        if (!fullMove.equals(prunedMove)) {
+            throw new AssertionError(fullMove + " != " + prunedMove);
+        }
+        System.out.printf("depth %d: full %,d nodes (%.0f ms), pruned %,d nodes (%.0f ms), %.1f%% of the nodes%n",
+                depth, full.getNodeCount(), fullMs, pruned.getNodeCount(), prunedMs,
+                100.0 * pruned.getNodeCount() / full.getNodeCount());
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        GameModel empty = new GameModelImplementation(SIZE);
+        GameModel started = new GameModelImplementation(SIZE);
+        TestHelperMethods.fill(started, SIZE, "nnnnn", "nWBnn", "nnWnn", "nBnnn", "nnnnn");
+        // Warm up.
+        compare(empty, MAX_DEPTH - 1);
+        System.out.println("Empty board:");
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            compare(empty, depth);
+        }
+        System.out.println("Four tiles:");
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            compare(started, depth);
+        }
+    }
+}
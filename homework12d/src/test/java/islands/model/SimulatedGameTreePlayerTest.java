@@ -50,4 +50,17 @@ public class SimulatedGameTreePlayerTest {
         testValue(0, "WB", "WB");
         testValue(-4, "WB", "BW"); // game over
     }
+
+    @Test
+    public void cachedValuesMatchAndAreCounted() {
+        player.setEvaluationCacheEnabled(true);
+        getValueOnSize2Board();
+        // Each position is evaluated once, then found for the other color.
+        assertEquals(6, player.getEvaluationCacheHits());
+        assertEquals(6, player.getEvaluationCacheMisses());
+        getValueOnSize2Board();
+        assertEquals(18, player.getEvaluationCacheHits());
+        player.setEvaluationCacheEnabled(false);
+        assertEquals(0, player.getEvaluationCacheHits());
+    }
 }
@@ -0,0 +1,90 @@
+package islands.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SymmetryTest {
+    private static final int SIZE = 5;
+    private static final int GAMES = 20;
+
+    // Builds the transformed position tile by tile.
+    private static GameModel transform(GameModel model, Symmetry symmetry, IntFunction<GameModel> factory) {
+        int size = model.getSize();
+        GameModel transformed = factory.apply(size);
+        String board = model.getBoardString().replace("\n", "");
+        for (int cell = 0; cell < size * size; cell++) {
+            char c = board.charAt(cell);
+            TileColor color = c == 'W' ? TileColor.WHITE : c == 'B' ? TileColor.BLACK : TileColor.NONE;
+            if (color != TileColor.NONE) {
+                int target = symmetry.transformCell(cell, size);
+                transformed.makePlay(target / size, target % size, symmetry.transformColor(color));
+            }
+        }
+        return transformed;
+    }
+
+    private void checkRandomGames(IntFunction<GameModel> factory) {
+        Random random = new Random(3);
+        for (int game = 0; game < GAMES; game++) {
+            GameModel model = factory.apply(SIZE);
+            TileColor turn = TileColor.WHITE;
+            while (!model.isGameOver()) {
+                int cell = model.getEmptyCell(random.nextInt(model.getEmptyCellCount()));
+                model.makePlay(cell / SIZE, cell % SIZE, turn);
+                turn = turn.getOpposite();
+                for (Symmetry symmetry : Symmetry.values()) {
+                    GameModel transformed = transform(model, symmetry, factory);
+                    assertEquals(transformed.getHashKey(), model.getHashKey(symmetry));
+                    // Symmetries keep scores and the end of the game.
+                    assertEquals(model.isGameOver(), transformed.isGameOver());
+                    for (TileColor color : new TileColor[]{TileColor.WHITE, TileColor.BLACK}) {
+                        assertEquals(model.getScore(color), transformed.getScore(symmetry.transformColor(color)));
+                    }
+                }
+            }
+            model.undoPlay();
+            GameModel replayed = transform(model, Symmetry.IDENTITY, factory);
+            for (Symmetry symmetry : Symmetry.values()) {
+                assertEquals(replayed.getHashKey(symmetry), model.getHashKey(symmetry));
+            }
+        }
+    }
+
+    @Test
+    public void hashKeysMatchTransformedModels() {
+        checkRandomGames(GameModelImplementation::new);
+        checkRandomGames(BitboardGameModel::new);
+        assertEquals(new BitboardGameModel(SIZE).getHashKey(Symmetry.ROTATION),
+                new GameModelImplementation(SIZE).getHashKey(Symmetry.ROTATION));
+    }
+
+    @Test
+    public void symmetriesAreTheirOwnInverses() {
+        for (Symmetry symmetry : Symmetry.values()) {
+            for (int cell = 0; cell < SIZE * SIZE; cell++) {
+                assertEquals(cell, symmetry.transformCell(symmetry.transformCell(cell, SIZE), SIZE));
+            }
+            assertEquals(TileColor.WHITE, symmetry.transformColor(symmetry.transformColor(TileColor.WHITE)));
+        }
+        assertEquals(TileColor.BLACK, Symmetry.TRANSPOSITION.transformColor(TileColor.WHITE));
+        assertEquals(TileColor.NONE, Symmetry.TRANSPOSITION.transformColor(TileColor.NONE));
+    }
+
+    @Test
+    public void equivalentPositionsHaveSameCanonicalKey() {
+        GameModel model = new GameModelImplementation(3);
+        TestHelperMethods.fill(model, 3, "WWn", "Bnn", "nnB");
+        long key = Symmetry.getCanonical(model, TileColor.WHITE).getHashKey(model, TileColor.WHITE);
+        for (Symmetry symmetry : Symmetry.values()) {
+            GameModel transformed = transform(model, symmetry, GameModelImplementation::new);
+            TileColor toMove = symmetry.transformColor(TileColor.WHITE);
+            assertEquals(key, Symmetry.getCanonical(transformed, toMove).getHashKey(transformed, toMove));
+        }
+        // The same tiles with the other player to move are not equivalent.
+        assertNotEquals(key, Symmetry.getCanonical(model, TileColor.BLACK).getHashKey(model, TileColor.BLACK));
+    }
+}
@@ -0,0 +1,90 @@
+package islands.model;
+
+import islands.model.student.ConcurrentTranspositionTable;
+import islands.model.student.TranspositionTable;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Compares the probe throughput of a {@link ConcurrentTranspositionTable}
+ * with that of a {@link ConcurrentHashMap} from keys to entries, the way
+ * the table used to be stored, with various numbers of threads. Each
+ * thread probes keys of which half have been stored. This is not a test.
+ * Run it with {@link #main(String[])}.
+ */
+public class TranspositionTableBenchmark {
+    private static final int KEY_COUNT = 1 << 20;
+    private static final int PROBES_PER_THREAD = 20_000_000;
+    private static final int REPETITIONS = 3;
+    private static final int MEGABYTES = 64;
+
+    private TranspositionTableBenchmark() {
+    }
+
+    // Returns the best throughput of several runs, in millions of probes
+    // per second.
+    private static double measure(long[] keys, int threads, LongPredicate probe) throws InterruptedException {
+        double best = 0;
+        for (int r = 0; r < REPETITIONS; r++) {
+            Thread[] workers = new Thread[threads];
+            int[] hits = new int[threads];
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                workers[t] = new Thread(() -> {
+                    int index = thread * 7919;
+                    for (int i = 0; i < PROBES_PER_THREAD; i++) {
+                        if (probe.test(keys[index & (keys.length - 1)])) {
+                            hits[thread]++;
+                        }
+                        index += 40503;
+                    }
+                });
+            }
+            long start = System.nanoTime();
+            for (Thread worker : workers) {
+                worker.start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            best = Math.max(best, (double) threads * PROBES_PER_THREAD / seconds / 1e6);
+        }
+        return best;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored
+     * @throws InterruptedException if interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Random random = new Random(1);
+        long[] keys = new long[KEY_COUNT];
+        TranspositionTable table = new ConcurrentTranspositionTable(MEGABYTES);
+        Map<Long, TranspositionTable.Entry> map = new ConcurrentHashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = random.nextLong();
+            if (i % 2 == 0) {
+                table.putEntry(keys[i], i % 20, i % 100, TranspositionTable.Bound.EXACT, i % 121);
+                map.put(keys[i], new TranspositionTable.Entry(i % 20, i % 100, TranspositionTable.Bound.EXACT, i % 121));
+            }
+        }
+        LongPredicate tableProbe = key -> table.probe(key) != TranspositionTable.NO_ENTRY;
+        LongPredicate mapProbe = key -> map.get(key) != null;
+        int cores = Runtime.getRuntime().availableProcessors();
+        // Warm up.
+        measure(keys, 1, tableProbe);
+        measure(keys, 1, mapProbe);
+        for (int threads = 1; threads <= Math.max(2, cores); threads *= 2) {
+            double tableRate = measure(keys, threads, tableProbe);
+            double mapRate = measure(keys, threads, mapProbe);
+            System.out.printf("%d threads: table %.1f M probes/s, ConcurrentHashMap %.1f M probes/s, ratio %.2f%n",
+                    threads, tableRate, mapRate, tableRate / mapRate);
+        }
+    }
+}
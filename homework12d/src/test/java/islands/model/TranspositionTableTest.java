@@ -62,4 +62,67 @@ public class TranspositionTableTest {
             assertFalse(table.hasMove(model, 1));
         }
     }
+
+    @Test
+    public void testEntriesPreferDeeperSearches() {
+        assertNull(table.getEntry(1L));
+        assertEquals(-1, table.getBestCell(1L));
+        table.putEntry(1L, 4, 2.0, TranspositionTable.Bound.LOWER, 7);
+        table.putEntry(1L, 3, 5.0, TranspositionTable.Bound.EXACT, 8);
+        assertEquals(new TranspositionTable.Entry(4, 2.0, TranspositionTable.Bound.LOWER, 7), table.getEntry(1L));
+        table.putEntry(1L, 4, -1.0, TranspositionTable.Bound.UPPER, 2);
+        assertEquals(TranspositionTable.Bound.UPPER, table.getEntry(1L).bound());
+        assertEquals(2, table.getBestCell(1L));
+    }
+
+    @Test
+    public void testBucketsKeepDeepestAndNewestEntries() {
+        TranspositionTable small = new TranspositionTable(1);
+        // Keys that differ only above the bucket index share a bucket.
+        int buckets = small.getCapacity() / 2;
+        long deep = 5, shallow = deep + buckets, newer = deep + 2L * buckets, deeper = deep + 3L * buckets;
+        small.putEntry(deep, 5, 1.0, TranspositionTable.Bound.EXACT, 1);
+        small.putEntry(shallow, 2, 2.0, TranspositionTable.Bound.EXACT, 2);
+        assertEquals(1, small.getBestCell(deep));
+        assertEquals(2, small.getBestCell(shallow));
+
+        // A shallower entry replaces the other shallow one.
+        small.putEntry(newer, 1, 3.0, TranspositionTable.Bound.EXACT, 3);
+        assertEquals(TranspositionTable.NO_ENTRY, small.probe(shallow));
+        assertEquals(1, small.getBestCell(deep));
+        assertEquals(3, small.getBestCell(newer));
+
+        // A deeper entry replaces the deep one.
+        small.putEntry(deeper, 6, 4.0, TranspositionTable.Bound.EXACT, 4);
+        assertNull(small.getEntry(deep));
+        assertEquals(new TranspositionTable.Entry(6, 4.0, TranspositionTable.Bound.EXACT, 4), small.getEntry(deeper));
+    }
+
+    @Test
+    public void testSizeIsRoundedToPowerOfTwo() {
+        assertEquals(1 << 16, new TranspositionTable(1).getCapacity());
+        assertEquals(1 << 17, new TranspositionTable(3).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    public void testHugeSizesAreCapped() {
+        assertEquals(new TranspositionTable(1).getCapacity(), TranspositionTable.getCapacityFor(1));
+        // 2^28 buckets, the most whose longs an int can index.
+        assertEquals(1 << 29, TranspositionTable.getCapacityFor(16384));
+        assertEquals(1 << 29, TranspositionTable.getCapacityFor(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testMovesServePositionsWithSwappedColors() {
+        table.putMove(model3a, TileColor.WHITE, SAMPLE_DEPTH, sampleMove);
+        // model3a reflected across its main diagonal, with the colors swapped.
+        GameModel transposed = new GameModelImplementation(3);
+        fill(transposed, 3, "BWn", "Bnn", "nnW");
+        assertTrue(table.hasMove(transposed, TileColor.BLACK, SAMPLE_DEPTH));
+        assertEquals(new Move(1, 2, SAMPLE_VALUE), table.getMove(transposed, TileColor.BLACK, SAMPLE_DEPTH));
+        assertFalse(table.hasMove(transposed, TileColor.WHITE, 0));
+        assertEquals(sampleMove, table.getMove(model3a, TileColor.WHITE, SAMPLE_DEPTH));
+        assertEquals(new Move(0, 1, SAMPLE_VALUE), table.getMove(model3b, TileColor.WHITE, SAMPLE_DEPTH));
+    }
 }